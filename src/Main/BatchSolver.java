@@ -0,0 +1,189 @@
+package Main;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Solves many puzzles logically across the threads of a fork join pool. The puzzles are split
+ * into tasks that idle threads steal from busy ones. Each thread keeps one grid and one solver
+ * and reuses them for every puzzle it solves, see Grid.load and Solver.reset.
+ * Puzzles are strings in the format of Grid(String)
+ */
+public class BatchSolver {
+    // the number of puzzles below which a task solves its puzzles instead of splitting them
+    private static final int SPLIT_THRESHOLD = 8;
+
+    private final ForkJoinPool pool;
+    private final TechniqueStats stats; // shared by the solvers of every thread, may be null
+    private final ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);
+
+    /**
+     * The outcome of solving one puzzle
+     */
+    public static final class Result {
+        private final int index;
+        private final String puzzle;
+        private final String grid;
+        private final boolean solved;
+
+        private Result(int index, String puzzle, String grid, boolean solved){
+            this.index = index;
+            this.puzzle = puzzle;
+            this.grid = grid;
+            this.solved = solved;
+        }
+
+        /**
+         * Returns the position of the puzzle in the input
+         * @return the index of the puzzle, from 0
+         */
+        public int getIndex(){
+            return index;
+        }
+
+        /**
+         * Returns the puzzle that was solved
+         * @return the puzzle, as it was given
+         */
+        public String getPuzzle(){
+            return puzzle;
+        }
+
+        /**
+         * Returns the grid after solving, in the format of Grid(String), with 0 for every cell
+         * that could not be solved
+         * @return the 81 digits of the grid
+         */
+        public String getGrid(){
+            return grid;
+        }
+
+        /**
+         * Returns whether the puzzle was solved
+         * @return true iff every cell was solved
+         */
+        public boolean isSolved(){
+            return solved;
+        }
+
+        @Override
+        public String toString(){
+            return index + ": " + grid;
+        }
+    }
+
+    /**
+     * Constructs a batch solver on the common fork join pool, which uses every core
+     */
+    public BatchSolver(){
+        this(ForkJoinPool.commonPool(), null);
+    }
+
+    /**
+     * Constructs a batch solver
+     * @param pool the pool that solves the puzzles
+     * @param stats the statistics shared by the solvers of every thread to order their techniques,
+     *              see Solver.setStats, or null to use the configured order
+     */
+    public BatchSolver(ForkJoinPool pool, TechniqueStats stats){
+        this.pool = Objects.requireNonNull(pool);
+        this.stats = stats;
+    }
+
+    /**
+     * Solves every puzzle and returns the results in input order
+     * @param puzzles the puzzles to be solved
+     * @return the result of each puzzle, result i for puzzle i
+     */
+    public List<Result> solveAll(List<String> puzzles){
+        Result[] results = new Result[puzzles.size()];
+        run(puzzles, result -> results[result.getIndex()] = result);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Solves every puzzle and returns the results in input order
+     * @param puzzles the puzzles to be solved, read before solving starts
+     * @return the result of each puzzle, in the order of puzzles
+     */
+    public List<Result> solveAll(Stream<String> puzzles){
+        return solveAll(puzzles.collect(Collectors.toList()));
+    }
+
+    /**
+     * Solves every puzzle, passing each result to onResult as soon as it is solved.
+     * Returns once every puzzle has been solved
+     * @param puzzles the puzzles to be solved
+     * @param onResult receives the results in the order they complete. It is called from the
+     *                 threads of the pool, possibly at the same time, so it must be thread safe
+     */
+    public void solveAll(List<String> puzzles, Consumer<Result> onResult){
+        run(puzzles, Objects.requireNonNull(onResult));
+    }
+
+    private void run(List<String> puzzles, Consumer<Result> onResult){
+        List<String> list = puzzles instanceof RandomAccess ? puzzles : new ArrayList<>(puzzles);
+        if(!list.isEmpty()){
+            pool.invoke(new SolveTask(list, 0, list.size(), onResult));
+        }
+    }
+
+    /**
+     * The grid and solver of one thread
+     */
+    private final class Worker {
+        private final Grid grid = new Grid();
+        private final Solver solver = new Solver(grid);
+        private final char[] digits = new char[81];
+
+        private Worker(){
+            solver.setStats(stats);
+        }
+
+        private Result solve(int index, String puzzle){
+            grid.load(puzzle);
+            solver.reset(grid);
+            boolean solved = solver.solve();
+            for(int coord = 0; coord < 81; coord++){
+                digits[coord] = (char) ('0' + grid.getVal(coord / 9, coord % 9));
+            }
+            return new Result(index, puzzle, new String(digits), solved);
+        }
+    }
+
+    /**
+     * Solves the puzzles in [from, to), splitting them in halves for other threads to steal
+     */
+    private final class SolveTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> puzzles;
+        private final int from;
+        private final int to;
+        private final Consumer<Result> onResult;
+
+        private SolveTask(List<String> puzzles, int from, int to, Consumer<Result> onResult){
+            this.puzzles = puzzles;
+            this.from = from;
+            this.to = to;
+            this.onResult = onResult;
+        }
+
+        @Override
+        protected void compute(){
+            if(to - from <= SPLIT_THRESHOLD){
+                Worker worker = workers.get();
+                for(int i = from; i < to; i++){
+                    onResult.accept(worker.solve(i, puzzles.get(i)));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SolveTask(puzzles, from, middle, onResult), new SolveTask(puzzles, middle, to, onResult));
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package Main;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A brute force sudoku solver working on candidate bitmasks. At every node of the search
+ * it places all naked and hidden singles, then branches on the unplaced cell with the
+ * fewest candidates. Each depth of the search has its own copy of the state, so undoing
+ * a branch is free.
+ * The parallel variants fork a task for every branch of the first SPLIT_DEPTH levels of the
+ * search tree, so a single hard puzzle is searched on every thread of a fork join pool.
+ */
+public class BitboardSolver {
+    public static final int SPLIT_DEPTH = 6; // the depth at which parallel tasks stop forking and search alone
+    private static final int ALL = Cell.ALL_CANDS;
+    private static final int PLACED = 1 << 9; // set on a cell once its value is removed from its peers
+    // Layout of a state: the candidate mask of each cell, indexed by coord, then
+    // for each unit the mask of values placed in the unit
+    private static final int USED = 81;
+    private static final int STATE_SIZE = USED + 27;
+
+    private final int[][] stack = new int[82][STATE_SIZE]; // the state at each depth of the search
+    private final int[] solution = new int[81]; // the candidate mask of each cell in the first solution
+    private int limit; // the number of solutions after which the search stops
+    private int numSolutions;
+    private Shared shared; // if not null, the search is one task of a parallel search
+
+    /**
+     * The solutions found by every task of a parallel search
+     */
+    private static final class Shared {
+        private final int limit;
+        private final AtomicInteger numSolutions = new AtomicInteger();
+        private final AtomicReference<int[]> solution = new AtomicReference<>(); // the candidate masks of the first solution
+        private volatile boolean cancelled; // set once limit solutions have been found, stops every task
+
+        private Shared(int limit){
+            this.limit = limit;
+        }
+
+        /**
+         * Records a solution
+         * @param state the solved state
+         * @return true iff the search should stop
+         */
+        private boolean found(int[] state){
+            int count = numSolutions.incrementAndGet();
+            if(count == 1){
+                int[] masks = new int[81];
+                for(int coord = 0; coord < 81; coord++){
+                    masks[coord] = state[coord] & ALL;
+                }
+                solution.set(masks);
+            }
+            if(count >= limit){
+                cancelled = true;
+            }
+            return cancelled;
+        }
+    }
+
+    /**
+     * Solves the given grid by brute force
+     * @param grid the grid to be solved, filled in with a solution if one exists
+     * @return true if the grid was solved
+     */
+    public static boolean solve(Grid grid){
+        BitboardSolver solver = new BitboardSolver();
+        solver.load(grid);
+        if(solver.run(1) == 0){
+            return false;
+        }
+        for(int coord = 0; coord < 81; coord++){
+            grid.solveCell(coord / 9, coord % 9, Integer.numberOfTrailingZeros(solver.solution[coord]) + 1);
+        }
+        return grid.isSolved();
+    }
+
+    /**
+     * Solves the given grid by brute force
+     * @param grid the grid to be solved, 0 for an empty cell, filled in with a solution if one exists
+     * @return true if the grid was solved
+     */
+    public static boolean solve(int[][] grid){
+        BitboardSolver solver = new BitboardSolver();
+        int[] state = solver.stack[0];
+        for(int coord = 0; coord < 81; coord++){
+            int value = grid[coord / 9][coord % 9];
+            state[coord] = value == 0 ? ALL : Cell.bit(value);
+        }
+        if(solver.run(1) == 0){
+            return false;
+        }
+        for(int coord = 0; coord < 81; coord++){
+            grid[coord / 9][coord % 9] = Integer.numberOfTrailingZeros(solver.solution[coord]) + 1;
+        }
+        return true;
+    }
+
+    /**
+     * Counts the solutions of the given grid, stopping once limit solutions have been found
+     * @param grid the grid to be checked, this grid is not changed
+     * @param limit the number of solutions after which counting stops, at least 1
+     * @return the number of solutions of grid, at most limit
+     */
+    public static int countSolutions(Grid grid, int limit){
+        BitboardSolver solver = new BitboardSolver();
+        solver.load(grid);
+        return solver.run(limit);
+    }
+
+    /**
+     * Solves the given grid by brute force, searching on every thread of pool
+     * @param grid the grid to be solved, filled in with a solution if one exists
+     * @param pool the pool that searches
+     * @return true if the grid was solved
+     */
+    public static boolean solve(Grid grid, ForkJoinPool pool){
+        int[] solution = searchInParallel(grid, 1, pool).solution.get();
+        if(solution == null){
+            return false;
+        }
+        for(int coord = 0; coord < 81; coord++){
+            grid.solveCell(coord / 9, coord % 9, Integer.numberOfTrailingZeros(solution[coord]) + 1);
+        }
+        return grid.isSolved();
+    }
+
+    /**
+     * Counts the solutions of the given grid on every thread of pool, stopping every thread once
+     * limit solutions have been found
+     * @param grid the grid to be checked, this grid is not changed
+     * @param limit the number of solutions after which counting stops, at least 1
+     * @param pool the pool that searches
+     * @return the number of solutions of grid, at most limit
+     */
+    public static int countSolutions(Grid grid, int limit, ForkJoinPool pool){
+        return Math.min(searchInParallel(grid, limit, pool).numSolutions.get(), limit);
+    }
+
+    /**
+     * Searches the given grid on every thread of pool
+     * @param grid the grid to be searched
+     * @param limit the number of solutions after which the search stops
+     * @param pool the pool that searches
+     * @return the solutions found
+     */
+    private static Shared searchInParallel(Grid grid, int limit, ForkJoinPool pool){
+        int[] state = new int[STATE_SIZE];
+        for(int coord = 0; coord < 81; coord++){
+            state[coord] = grid.getCandMask(coord);
+        }
+        Shared shared = new Shared(limit);
+        pool.invoke(new SearchTask(state, 0, shared));
+        return shared;
+    }
+
+    /**
+     * Searches the subtree of a state, forking a task per branch above SPLIT_DEPTH
+     */
+    private static final class SearchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] state; // owned by this task
+        private final int depth;
+        private final Shared shared;
+
+        private SearchTask(int[] state, int depth, Shared shared){
+            this.state = state;
+            this.depth = depth;
+            this.shared = shared;
+        }
+
+        @Override
+        protected void compute(){
+            if(shared.cancelled){
+                return;
+            }
+            if(depth >= SPLIT_DEPTH){
+                BitboardSolver solver = new BitboardSolver();
+                solver.shared = shared;
+                System.arraycopy(state, 0, solver.stack[depth], 0, STATE_SIZE);
+                solver.search(depth);
+                return;
+            }
+            if(!propagate(state)){
+                return;
+            }
+            int best = mostConstrained(state);
+            if(best == -1){
+                shared.found(state);
+                return;
+            }
+            List<SearchTask> branches = new ArrayList<>(Integer.bitCount(state[best]));
+            for(int bits = state[best]; bits != 0; bits &= bits - 1){
+                int[] next = state.clone();
+                next[best] = Integer.lowestOneBit(bits);
+                branches.add(new SearchTask(next, depth + 1, shared));
+            }
+            invokeAll(branches);
+        }
+    }
+
+    /**
+     * Copies the candidates of grid into the state at depth 0
+     * @param grid the grid to be loaded
+     */
+    private void load(Grid grid){
+        int[] state = stack[0];
+        for(int coord = 0; coord < 81; coord++){
+            state[coord] = grid.getCandMask(coord);
+        }
+    }
+
+    /**
+     * Runs the search on the state at depth 0
+     * @param limit the number of solutions after which the search stops
+     * @return the number of solutions found, at most limit
+     */
+    private int run(int limit){
+        this.limit = limit;
+        numSolutions = 0;
+        int[] state = stack[0];
+        for(int unit = 0; unit < 27; unit++){
+            state[USED + unit] = 0;
+        }
+        search(0);
+        return numSolutions;
+    }
+
+    /**
+     * Propagates singles in the state at depth, then branches on the most constrained cell
+     * @param depth the depth of the search
+     * @return true iff the search should stop
+     */
+    private boolean search(int depth){
+        if(shared != null && shared.cancelled){
+            return true;
+        }
+        int[] state = stack[depth];
+        if(!propagate(state)){
+            return false;
+        }
+        int best = mostConstrained(state);
+        if(best == -1){
+            if(shared != null){
+                return shared.found(state);
+            }
+            numSolutions++;
+            if(numSolutions == 1){
+                for(int coord = 0; coord < 81; coord++){
+                    solution[coord] = state[coord] & ALL;
+                }
+            }
+            return numSolutions >= limit;
+        }
+        int[] next = stack[depth + 1];
+        for(int bits = state[best]; bits != 0; bits &= bits - 1){
+            System.arraycopy(state, 0, next, 0, STATE_SIZE);
+            next[best] = Integer.lowestOneBit(bits);
+            if(search(depth + 1)){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the unplaced cell with the fewest candidates
+     * @param state the propagated state
+     * @return the coord of the cell, or -1 if every cell is placed
+     */
+    private static int mostConstrained(int[] state){
+        int best = -1;
+        int bestCount = 10;
+        for(int coord = 0; coord < 81; coord++){
+            int mask = state[coord];
+            if((mask & PLACED) == 0 && Integer.bitCount(mask) < bestCount){
+                best = coord;
+                bestCount = Integer.bitCount(mask);
+                if(bestCount == 2){
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Places naked and hidden singles in state until there are none left
+     * @param state the state to be propagated
+     * @return false iff a contradiction was found
+     */
+    private static boolean propagate(int[] state){
+        boolean progress = true;
+        while(progress){
+            progress = false;
+            //naked singles
+            for(int coord = 0; coord < 81; coord++){
+                int mask = state[coord];
+                if((mask & PLACED) == 0 && (mask & (mask - 1)) == 0){
+                    if(mask == 0 || !place(state, coord, mask)){
+                        return false;
+                    }
+                    progress = true;
+                }
+            }
+            //hidden singles
+            for(int unit = 0; unit < 27; unit++){
+                int once = 0;
+                int twice = 0;
+                for(int coord: Units.UNITS[unit]){
+                    int mask = state[coord];
+                    if((mask & PLACED) == 0){
+                        twice |= once & mask;
+                        once |= mask;
+                    }
+                }
+                if((once | state[USED + unit]) != ALL){
+                    //a value has no place left in this unit
+                    return false;
+                }
+                for(int bits = once & ~twice; bits != 0; bits &= bits - 1){
+                    int bit = Integer.lowestOneBit(bits);
+                    for(int coord: Units.UNITS[unit]){
+                        if((state[coord] & (bit | PLACED)) == bit){
+                            state[coord] = bit;
+                            progress = true;
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Places a value in a cell and removes it from the cell's peers
+     * @param state the state to be changed
+     * @param coord the coord of the cell
+     * @param bit the mask of the value to be placed
+     * @return false iff placing the value causes a contradiction
+     */
+    private static boolean place(int[] state, int coord, int bit){
+        for(int unit: Units.CELL_UNITS[coord]){
+            if((state[USED + unit] & bit) != 0){
+                return false;
+            }
+            state[USED + unit] |= bit;
+        }
+        state[coord] = bit | PLACED;
+        for(int peer: Units.PEERS[coord]){
+            int mask = state[peer];
+            if((mask & PLACED) == 0){
+                mask &= ~bit;
+                if(mask == 0){
+                    return false;
+                }
+                state[peer] = mask;
+            }
+        }
+        return true;
+    }
+}
@@ -2,17 +2,21 @@ package Main;
 
 import java.util.*;
 
-// A class which represents the candidates of one cell in a sudoku grid
+// A class which represents the candidates of one cell in a sudoku grid.
+// A cell either stores its own candidates or is a lightweight view of one position of a Grid
 public class Cell {
-    private Set<Integer> candidates;
-    private final int ONE_CAND_CAP = 1; // the initial capacity of the set for a cell with one candidate
+    public static final int ALL_CANDS = 0x1FF; // the mask with all candidates 1-9
+
+    private final Grid grid; // the grid this cell is a view of, null if this cell stores its own candidates
+    private int candidates; // bit (value - 1) is set iff value is a candidate, unused if grid is not null
+    private Set<Integer> candidateView; // lazily created live view of candidates
     private int row;
     private int column;
     private int coord;
 
-    // checks that this cell represents a valid cell of a sudoku grid
-    private void checkRep(){
-        if(candidates.size() > 9 || candidates.size() < 1){
+    // checks that the given mask represents a valid cell of a sudoku grid
+    static void checkMask(int mask){
+        if(mask == 0 || (mask & ~ALL_CANDS) != 0){
             throw new IllegalStateException("Size of candidates violated");
         }
     }
@@ -21,8 +25,20 @@ public class Cell {
      * Constructs a cell with the candidates 1-9
      */
     public Cell(){
-        candidates = new HashSet<>(9);
-        fill(candidates);
+        grid = null;
+        candidates = ALL_CANDS;
+    }
+
+    /**
+     * Constructs a cell which is a view of the given position of grid
+     * @param grid the grid whose candidates this cell reads and writes
+     * @param coord the coord of this cell in grid, row * 9 + column
+     */
+    Cell(Grid grid, int coord){
+        this.grid = grid;
+        this.row = coord / 9;
+        this.column = coord % 9;
+        this.coord = coord;
     }
 
 
@@ -40,14 +56,6 @@ public class Cell {
         this.coord = row * 9 + column;
     }
 
-    /**
-     * fills the given set with 1 through 9
-     * @param candidates the set to be filled
-     */
-    private void fill(Set<Integer> candidates){
-        Collections.addAll(candidates, 1, 2, 3, 4, 5, 6, 7, 8, 9);
-    }
-
     /**
      * constructs a cell which is solved to value
      * @param value the value of the cell
@@ -55,8 +63,8 @@ public class Cell {
      */
     public Cell(int value){
         checkVal(value);
-        candidates = new HashSet<>(ONE_CAND_CAP);
-        candidates.add(value);
+        grid = null;
+        candidates = bit(value);
     }
 
     /**
@@ -69,8 +77,7 @@ public class Cell {
             if (!contains(value)){
                 throw new IllegalStateException();
             }
-            candidates = new HashSet<>(ONE_CAND_CAP);
-            candidates.add(value);
+            store(bit(value));
         }
     }
 
@@ -80,9 +87,11 @@ public class Cell {
      * @return true iff candidates contained value
      */
     public boolean remove(int value){
-        boolean removed = candidates.remove(value);
-        checkRep();
-        return removed;
+        if(!contains(value)){
+            return false;
+        }
+        store(getCandMask() & ~bit(value));
+        return true;
     }
 
     /**
@@ -91,11 +100,21 @@ public class Cell {
      * @return true iff at least one candidate was removed
      */
     public boolean removeAll(Set<Integer> cands) {
-        boolean didChange = false;
-        for(int cand: cands){
-            didChange |= remove(cand);
+        return removeAll(toMask(cands));
+    }
+
+    /**
+     * Removes all candidates in the given mask from this cell's candidates
+     * @param mask the mask of candidates to be removed, bit (value - 1) for each value
+     * @return true iff at least one candidate was removed
+     */
+    public boolean removeAll(int mask){
+        int candidates = getCandMask();
+        if((candidates & mask) == 0){
+            return false;
         }
-        return didChange;
+        store(candidates & ~mask);
+        return true;
     }
 
 
@@ -104,7 +123,7 @@ public class Cell {
      * @return whether the current cell has one candidate (it is solved)
      */
     public boolean isSolved(){
-        return candidates.size() == 1;
+        return size() == 1;
     }
 
     /**
@@ -112,7 +131,7 @@ public class Cell {
      * @return the number of candidates in this cell
      */
     public int size(){
-        return candidates.size();
+        return Integer.bitCount(getCandMask());
     }
 
     /**
@@ -121,7 +140,7 @@ public class Cell {
      * @return true iff contains value as a candidate
      */
     public boolean contains(int value){
-        return candidates.contains(value);
+        return 1 <= value && value <= 9 && (getCandMask() & bit(value)) != 0;
     }
 
     /**
@@ -132,7 +151,7 @@ public class Cell {
         if (!isSolved()){
             return 0;
         }
-        return candidates.iterator().next();
+        return Integer.numberOfTrailingZeros(getCandMask()) + 1;
     }
 
     /**
@@ -141,6 +160,20 @@ public class Cell {
      * @return an unmodifiable set of the candidates of this list
      */
     public Set<Integer> getCands(){
+        if(candidateView == null){
+            candidateView = new CandidateView();
+        }
+        return candidateView;
+    }
+
+    /**
+     * Returns the candidates of this cell as a mask, bit (value - 1) is set iff value is a candidate
+     * @return the candidate mask of this cell
+     */
+    public int getCandMask(){
+        if(grid != null){
+            return grid.getCandMask(coord);
+        }
         return candidates;
     }
 
@@ -149,7 +182,53 @@ public class Cell {
      * @param cands the set of candidates for this to have
      */
     public void setCandidates(Set<Integer> cands){
-        this.candidates = cands;
+        setCandidates(toMask(cands));
+    }
+
+    /**
+     * Sets the candidates of this to the given mask
+     * @param mask the mask of candidates for this to have, bit (value - 1) for each value
+     */
+    public void setCandidates(int mask){
+        store(mask);
+    }
+
+    /**
+     * Stores mask as the candidates of this cell, or of the grid position this cell is a view of
+     * @param mask the new candidate mask
+     * @throws IllegalStateException if mask has no candidates or bits outside of 1-9
+     */
+    private void store(int mask){
+        checkMask(mask);
+        if(grid != null){
+            grid.setCandMask(coord, mask);
+        } else {
+            candidates = mask;
+        }
+    }
+
+    /**
+     * Returns the mask with only the bit for value set
+     * @param value the value in range 1-9
+     * @return the mask of value
+     */
+    public static int bit(int value){
+        return 1 << (value - 1);
+    }
+
+    /**
+     * Converts a collection of values 1-9 to a candidate mask. Values out of range are ignored
+     * @param cands the values to be converted
+     * @return a mask with bit (value - 1) set for each value in cands
+     */
+    public static int toMask(Collection<Integer> cands){
+        int mask = 0;
+        for(int cand: cands){
+            if(1 <= cand && cand <= 9){
+                mask |= bit(cand);
+            }
+        }
+        return mask;
     }
 
     /**
@@ -162,7 +241,7 @@ public class Cell {
             return false;
         }
         Cell otherCell = (Cell) other;
-        return this.candidates.equals(otherCell.candidates)
+        return this.getCandMask() == otherCell.getCandMask()
                 && this.getRow() == otherCell.getRow()
                 && this.getColumn() == otherCell.getColumn();
     }
@@ -214,7 +293,7 @@ public class Cell {
 
     @Override
     public String toString(){
-        return candidates.toString();
+        return getCands().toString();
     }
 
     public String toStringNoCands(){
@@ -223,4 +302,42 @@ public class Cell {
         }
         return " ";
     }
+
+    /**
+     * A live, unmodifiable view of the candidates of this cell
+     */
+    private class CandidateView extends AbstractSet<Integer> {
+        @Override
+        public int size() {
+            return Cell.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Integer && Cell.this.contains((Integer) o);
+        }
+
+        @Override
+        public Iterator<Integer> iterator() {
+            return new Iterator<>() {
+                // iterates over the candidates at the time of creation
+                int remaining = getCandMask();
+
+                @Override
+                public boolean hasNext() {
+                    return remaining != 0;
+                }
+
+                @Override
+                public Integer next() {
+                    if(remaining == 0){
+                        throw new NoSuchElementException();
+                    }
+                    int lowest = Integer.lowestOneBit(remaining);
+                    remaining ^= lowest;
+                    return Integer.numberOfTrailingZeros(lowest) + 1;
+                }
+            };
+        }
+    }
 }
@@ -0,0 +1,191 @@
+package Main;
+
+import java.util.*;
+
+/**
+ * A queue of coords in range [0, capacity) which, like QueueSet, has the set property that
+ * no coord is in the queue twice. If a coord already in the queue is added, nothing happens.
+ * Membership is kept in a bitset and order in a ring buffer, so the primitive methods never
+ * box or allocate, and the queue can be cleared and reused.
+ */
+public class CoordQueue extends AbstractQueue<Integer> {
+    private final long[] members; // bit coord % 64 of word coord / 64 is set iff coord is in the queue
+    private final int[] ring; // the coords in the queue, from head, wrapping around
+    private int head;
+    private int size;
+
+    /**
+     * Constructs an empty queue for the coords of a 9x9 grid
+     */
+    public CoordQueue(){
+        this(81);
+    }
+
+    /**
+     * Constructs an empty queue for coords in range [0, capacity)
+     * @param capacity one more than the largest coord, such as the number of cells of a grid
+     */
+    public CoordQueue(int capacity){
+        members = new long[(capacity + 63) / 64];
+        ring = new int[capacity];
+    }
+
+    /**
+     * Adds coord to the back of the queue if it is not already in the queue
+     * @param coord the coord to be added, in range [0, capacity)
+     * @return true iff coord was added
+     */
+    public boolean addCoord(int coord){
+        long bit = 1L << coord;
+        if((members[coord >>> 6] & bit) != 0){
+            return false;
+        }
+        members[coord >>> 6] |= bit;
+        int tail = head + size;
+        ring[tail < ring.length ? tail : tail - ring.length] = coord;
+        size++;
+        return true;
+    }
+
+    /**
+     * Adds every coord in range [0, capacity) that is not already in the queue, in increasing order
+     */
+    public void addAllCoords(){
+        for(int coord = 0; coord < ring.length; coord++){
+            addCoord(coord);
+        }
+    }
+
+    /**
+     * Removes and returns the coord at the front of the queue
+     * @return the coord at the front of the queue
+     * @throws NoSuchElementException if the queue is empty
+     */
+    public int removeCoord(){
+        if(size == 0){
+            throw new NoSuchElementException();
+        }
+        int coord = ring[head];
+        members[coord >>> 6] &= ~(1L << coord);
+        head = head + 1 < ring.length ? head + 1 : 0;
+        size--;
+        return coord;
+    }
+
+    /**
+     * Removes the coord at the given offset from the front of the queue, moving the coords
+     * behind it one place forward
+     * @param offset the offset of the coord from head, in range [0, size)
+     */
+    private void removeAt(int offset){
+        int position = head + offset;
+        position = position < ring.length ? position : position - ring.length;
+        int coord = ring[position];
+        members[coord >>> 6] &= ~(1L << coord);
+        for(int i = offset + 1; i < size; i++){
+            int next = position + 1 < ring.length ? position + 1 : 0;
+            ring[position] = ring[next];
+            position = next;
+        }
+        size--;
+    }
+
+    /**
+     * Returns whether coord is in the queue
+     * @param coord the coord to be checked
+     * @return true iff coord is in the queue
+     */
+    public boolean containsCoord(int coord){
+        return 0 <= coord && coord < ring.length && (members[coord >>> 6] & (1L << coord)) != 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Integer && containsCoord((Integer) o);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if(!contains(o)){
+            return false;
+        }
+        int coord = (Integer) o;
+        for(int offset = 0; ; offset++){
+            int position = head + offset;
+            if(ring[position < ring.length ? position : position - ring.length] == coord){
+                removeAt(offset);
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(members, 0);
+        head = 0;
+        size = 0;
+    }
+
+    @Override
+    public boolean add(Integer coord) {
+        return addCoord(coord);
+    }
+
+    @Override
+    public boolean offer(Integer coord) {
+        return addCoord(coord);
+    }
+
+    @Override
+    public Integer poll() {
+        if(size == 0){
+            return null;
+        }
+        return removeCoord();
+    }
+
+    @Override
+    public Integer peek() {
+        if(size == 0){
+            return null;
+        }
+        return ring[head];
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<>() {
+            int index = 0;
+            boolean canRemove = false; // whether next returned a coord that has not been removed
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public Integer next() {
+                if(index >= size){
+                    throw new NoSuchElementException();
+                }
+                int position = head + index++;
+                canRemove = true;
+                return ring[position < ring.length ? position : position - ring.length];
+            }
+
+            @Override
+            public void remove() {
+                if(!canRemove){
+                    throw new IllegalStateException();
+                }
+                canRemove = false;
+                removeAt(--index);
+            }
+        };
+    }
+}
@@ -0,0 +1,244 @@
+package Main;
+
+import java.util.*;
+
+/**
+ * An exact cover solver for sudoku grids using Knuth's Dancing Links (Algorithm X).
+ * A grid is encoded with one exact cover column for each cell, each value of each row,
+ * each value of each column and each value of each box, and one exact cover row for
+ * each candidate of each cell. Only candidates still present in the grid are encoded,
+ * so solutions always agree with the candidates of the grid.
+ */
+public class DancingLinks {
+    private static final int NUM_COLUMNS = 324;
+    private static final int ROOT = 0;
+
+    // the four way links of every node. Node 0 is the root, nodes 1-324 are the column headers
+    private final int[] left;
+    private final int[] right;
+    private final int[] up;
+    private final int[] down;
+    private final int[] columnOf; // the column header of each node
+    private final int[] candidateOf; // the candidate of each node, coord * 9 + value - 1
+    private final int[] size; // the number of nodes in each column, indexed by header
+    private final int[] chosen = new int[81]; // the candidates chosen at each depth of the search
+
+    private int limit; // the number of solutions after which the search stops
+    private int numSolutions;
+    private Grid firstSolution; // if not null, filled in with the first solution found
+    private List<Grid> solutions; // if not null, every solution found is added to it
+    private final Grid template; // the grid the solutions are copied from
+
+    /**
+     * Builds the exact cover matrix of the candidates of the given grid
+     * @param grid the grid to be encoded, this grid is not changed
+     */
+    private DancingLinks(Grid grid){
+        int numCandidates = 0;
+        for(int coord = 0; coord < 81; coord++){
+            numCandidates += Integer.bitCount(grid.getCandMask(coord));
+        }
+        int numNodes = NUM_COLUMNS + 1 + numCandidates * 4;
+        left = new int[numNodes];
+        right = new int[numNodes];
+        up = new int[numNodes];
+        down = new int[numNodes];
+        columnOf = new int[numNodes];
+        candidateOf = new int[numNodes];
+        size = new int[NUM_COLUMNS + 1];
+        template = grid;
+
+        for(int header = 0; header <= NUM_COLUMNS; header++){
+            left[header] = header - 1;
+            right[header] = header + 1;
+            up[header] = header;
+            down[header] = header;
+            columnOf[header] = header;
+        }
+        left[ROOT] = NUM_COLUMNS;
+        right[NUM_COLUMNS] = ROOT;
+
+        int node = NUM_COLUMNS + 1;
+        for(int coord = 0; coord < 81; coord++){
+            int row = coord / 9;
+            int column = coord % 9;
+            int box = Units.boxOf(row, column);
+            for(int bits = grid.getCandMask(coord); bits != 0; bits &= bits - 1){
+                int value = Integer.numberOfTrailingZeros(bits);
+                int first = node;
+                addNode(node++, 1 + coord, coord * 9 + value);
+                addNode(node++, 1 + 81 + row * 9 + value, coord * 9 + value);
+                addNode(node++, 1 + 162 + column * 9 + value, coord * 9 + value);
+                addNode(node++, 1 + 243 + box * 9 + value, coord * 9 + value);
+                for(int i = 0; i < 4; i++){
+                    left[first + i] = first + (i + 3) % 4;
+                    right[first + i] = first + (i + 1) % 4;
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends a node to the bottom of the given column
+     * @param node the index of the node
+     * @param header the column header of the node
+     * @param candidate the candidate the node belongs to, coord * 9 + value - 1
+     */
+    private void addNode(int node, int header, int candidate){
+        columnOf[node] = header;
+        candidateOf[node] = candidate;
+        up[node] = up[header];
+        down[node] = header;
+        down[up[header]] = node;
+        up[header] = node;
+        size[header]++;
+    }
+
+    /**
+     * Solves the given grid by exact cover, keeping the first solution found
+     * @param grid the grid to be solved, filled in with a solution if one exists
+     * @return true iff the grid was solved
+     */
+    public static boolean solve(Grid grid){
+        DancingLinks links = new DancingLinks(grid);
+        links.firstSolution = grid;
+        return links.run(1) == 1;
+    }
+
+    /**
+     * Counts the solutions of the given grid, stopping once limit solutions have been found
+     * @param grid the grid to be checked, this grid is not changed
+     * @param limit the number of solutions after which counting stops, at least 1
+     * @return the number of solutions of grid, at most limit
+     */
+    public static int countSolutions(Grid grid, int limit){
+        return new DancingLinks(grid).run(limit);
+    }
+
+    /**
+     * Returns the solutions of the given grid, stopping once limit solutions have been found
+     * @param grid the grid to be solved, this grid is not changed
+     * @param limit the maximum number of solutions to be returned, at least 1
+     * @return a list of solved grids, at most limit of them
+     */
+    public static List<Grid> getSolutions(Grid grid, int limit){
+        DancingLinks links = new DancingLinks(grid);
+        links.solutions = new ArrayList<>();
+        links.run(limit);
+        return links.solutions;
+    }
+
+    /**
+     * Runs the search from the start
+     * @param limit the number of solutions after which the search stops
+     * @return the number of solutions found
+     */
+    private int run(int limit){
+        this.limit = limit;
+        numSolutions = 0;
+        search(0);
+        return numSolutions;
+    }
+
+    /**
+     * Algorithm X, choosing the column with the fewest nodes at each depth
+     * @param depth the number of candidates chosen so far
+     * @return true iff the search should stop
+     */
+    private boolean search(int depth){
+        if(right[ROOT] == ROOT){
+            return recordSolution(depth);
+        }
+        int best = right[ROOT];
+        for(int header = right[best]; header != ROOT; header = right[header]){
+            if(size[header] < size[best]){
+                best = header;
+                if(size[best] <= 1){
+                    break;
+                }
+            }
+        }
+        if(size[best] == 0){
+            return false;
+        }
+        cover(best);
+        for(int node = down[best]; node != best; node = down[node]){
+            chosen[depth] = candidateOf[node];
+            for(int other = right[node]; other != node; other = right[other]){
+                cover(columnOf[other]);
+            }
+            boolean stop = search(depth + 1);
+            for(int other = left[node]; other != node; other = left[other]){
+                uncover(columnOf[other]);
+            }
+            if(stop){
+                uncover(best);
+                return true;
+            }
+        }
+        uncover(best);
+        return false;
+    }
+
+    /**
+     * Records the solution made of the chosen candidates
+     * @param depth the number of chosen candidates, always 81
+     * @return true iff the search should stop
+     */
+    private boolean recordSolution(int depth){
+        numSolutions++;
+        if(firstSolution != null && numSolutions == 1){
+            fill(firstSolution, depth);
+        }
+        if(solutions != null){
+            Grid solution = template.clone();
+            fill(solution, depth);
+            solutions.add(solution);
+        }
+        return numSolutions >= limit;
+    }
+
+    /**
+     * Solves every cell of grid to its chosen candidate
+     * @param grid the grid to be filled in
+     * @param depth the number of chosen candidates
+     */
+    private void fill(Grid grid, int depth){
+        for(int i = 0; i < depth; i++){
+            int coord = chosen[i] / 9;
+            grid.solveCell(coord / 9, coord % 9, chosen[i] % 9 + 1);
+        }
+    }
+
+    /**
+     * Removes a column and every row that has a node in it from the matrix
+     * @param header the header of the column
+     */
+    private void cover(int header){
+        right[left[header]] = right[header];
+        left[right[header]] = left[header];
+        for(int row = down[header]; row != header; row = down[row]){
+            for(int node = right[row]; node != row; node = right[node]){
+                down[up[node]] = down[node];
+                up[down[node]] = up[node];
+                size[columnOf[node]]--;
+            }
+        }
+    }
+
+    /**
+     * Restores a column removed by cover, in the reverse order
+     * @param header the header of the column
+     */
+    private void uncover(int header){
+        for(int row = up[header]; row != header; row = up[row]){
+            for(int node = left[row]; node != row; node = left[node]){
+                size[columnOf[node]]++;
+                down[up[node]] = node;
+                up[down[node]] = node;
+            }
+        }
+        right[left[header]] = header;
+        left[right[header]] = header;
+    }
+}
@@ -1,11 +1,11 @@
 package Main;
-import javax.print.attribute.standard.MediaSize;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 public class Generator {
     /**
      * Returns whether the given grid has exactly one solution
-     * @param grid the grid to be checked
+     * @param grid the grid to be checked, this grid is not changed
      * @return true iff the grid has exactly one solution
      */
     public static boolean isValid(Grid grid){
@@ -13,86 +13,85 @@ public class Generator {
             //there is no known sudoku with fewer than 16 givens
             return false;
         }
-        grid = grid.clone();
-        Solver solver = new Solver(grid);
-        try{
-            if(solver.solve()){
-                return true;
-            }
-        } catch(Throwable e){
-            return false;
-        }
-
-        Grid inOrder = grid.clone();
-        Grid revOrder = grid.clone();
-        List<Integer> candidates = new ArrayList<>();
-        for(int i = 9; i >= 1; i--){
-            candidates.add(i);
-        }
-        boolean solved = bruteForceSolver(inOrder);
-        bruteForceSolver(revOrder, candidates);
-        return solved && inOrder.equals(revOrder);
+        return countSolutions(grid, 2) == 1;
     }
 
     /**
-     * Returns whether the given grid has exactly one solution
-     * @param grid the grid to be checked
+     * Returns whether the given grid has exactly one solution, checked by exact cover.
+     * Slower than isValid, but independent of the brute force solver
+     * @param grid the grid to be checked, this grid is not changed
      * @return true iff the grid has exactly one solution
      */
     public static boolean isValidSlow(Grid grid){
-        Solver solver = new Solver(grid);
-        solver.runNakedSingle(new LinkedList<>());
-        if(grid.hasDuplicate()){
-            return false;
-        } else if(grid.numSolved() == 81){
-            return true;
-        }
-        Grid solved = null;
-        for(int r = 0; r < 9; r++){
-            for(int c = 0; c < 9; c++){
-                if(!grid.isSolved(r, c)){
-                    Cell cell = grid.getCell(r, c);
-                    for(int cand: cell.getCands()){
-                        Grid copy = grid.clone();
-                        copy.solveCell(r, c, cand);
-                        if(bruteForceSolver(copy)){
-                            if(!copy.equals(solved)){
-                                if(solved == null){
-                                    solved = copy;
-                                } else{
-                                    return false;
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        return solved != null;
+        return DancingLinks.countSolutions(grid, 2) == 1;
+    }
+
+    /**
+     * Counts the solutions of the given grid that agree with its candidates,
+     * stopping as soon as limit solutions have been found
+     * @param grid the grid to be checked, this grid is not changed
+     * @param limit the number of solutions after which counting stops, at least 1.
+     *              2 is enough to check for a unique solution
+     * @return the number of solutions of grid, at most limit
+     */
+    public static int countSolutions(Grid grid, int limit){
+        return BitboardSolver.countSolutions(grid, limit);
+    }
+
+    /**
+     * Counts the solutions of the given grid like countSolutions(grid, limit), splitting the search
+     * across the threads of pool. Bounds the time taken by a single very hard grid
+     * @param grid the grid to be checked, this grid is not changed
+     * @param limit the number of solutions after which counting stops, at least 1
+     * @param pool the pool that searches
+     * @return the number of solutions of grid, at most limit
+     */
+    public static int countSolutions(Grid grid, int limit, ForkJoinPool pool){
+        return BitboardSolver.countSolutions(grid, limit, pool);
     }
 
     /**
      * Solver for the given grid with the list of solver methods.
-     * Naked singles is always run first, regardless of methods
+     * Naked singles is always run first, regardless of methods.
+     * Methods should be ordered cheapest first: a method only runs once every earlier method
+     * has been run on every changed cell without progress, and after any progress solving
+     * starts again from the first method
      * @param grid the grid to be solved
-     * @param methods the list of solving methods to be used on the grid
+     * @param methods the list of solving methods to be used on the grid, cheapest first
      * @return true iff grid was solved
      */
     public static boolean solveWithMethods(Grid grid, List<SolverFunction> methods){
-        Queue<Integer> changedCoords = new QueueSet<Integer>();
-        for(int i = 0; i < 81; i++){
-            changedCoords.add(i);
-        }
+        CoordQueue changedCoords = new CoordQueue();
+        changedCoords.addAllCoords();
         Solver solver = new Solver(grid);
         solver.runNakedSingle(changedCoords);
-        while(!grid.isSolved() && !changedCoords.isEmpty()){
-            int changed = changedCoords.remove();
+        //the cells each method has not been run on since they last changed
+        CoordQueue[] pending = new CoordQueue[methods.size()];
+        for(int i = 0; i < pending.length; i++){
+            pending[i] = new CoordQueue();
+            pending[i].addAllCoords();
+        }
+        changedCoords.clear();
+        int next = 0;
+        while(!grid.isSolved() && !grid.hasContradiction() && next < pending.length){
+            if(pending[next].isEmpty()){
+                next++;
+                continue;
+            }
+            int changed = pending[next].removeCoord();
             int row = changed / 9;
             int column = changed % 9;
 
             if(!grid.isSolved(row, column)){
-                for(SolverFunction func: methods){
-                    func.solveMethod(row, column, changedCoords);
+                boolean didChange = methods.get(next).solveMethod(row, column, changedCoords);
+                if(didChange || !changedCoords.isEmpty()){
+                    while(!changedCoords.isEmpty()){
+                        int coord = changedCoords.removeCoord();
+                        for(CoordQueue queue: pending){
+                            queue.addCoord(coord);
+                        }
+                    }
+                    next = 0;
                 }
             }
         }
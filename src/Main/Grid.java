@@ -4,16 +4,49 @@ import java.util.*;
 
 public class Grid implements Iterable<Cell> {
 
-    private final Cell[] cells;
+    // Layout of state. The cell masks are the real state of the grid, every other section
+    // is derived from them and kept up to date by setCandMask.
+    // the candidate mask of each cell, indexed by coord
+    private static final int CANDS = 0;
+    // for each unit and value, index unit * 9 + value - 1: the mask of positions in the unit holding the candidate
+    private static final int POSITIONS = CANDS + 81;
+    // for each unit: the mask of positions in the unit holding a solved cell
+    private static final int SOLVED_POSITIONS = POSITIONS + 27 * 9;
+    // for each unit: the mask of values solved in the unit
+    private static final int SOLVED_VALS = SOLVED_POSITIONS + 27;
+    // for each unit and value, index unit * 9 + value - 1: the number of cells in the unit solved to the value
+    private static final int SOLVED_COUNTS = SOLVED_VALS + 27;
+    // the number of solved cells
+    private static final int NUM_SOLVED = SOLVED_COUNTS + 27 * 9;
+    // the number of solved cells that duplicate the value of another solved cell in one of their units
+    private static final int NUM_DUPLICATES = NUM_SOLVED + 1;
+    // the coords of the cells with exactly two candidates as a bitset, bit coord % 16 of entry coord / 16
+    private static final int BIVALUES = NUM_DUPLICATES + 1;
+    // for each value, index (value - 1) * 2: the units with exactly two unsolved cells holding the candidate,
+    // bit unit % 16 of entry unit / 16. These are the strong links of the value
+    private static final int STRONG_LINKS = BIVALUES + 8;
+    // 1 once a removal would have left a cell without candidates, see removeCands
+    private static final int CONTRADICTION = STRONG_LINKS + 9 * 2;
+    private static final int STATE_SIZE = CONTRADICTION + 1;
+
+    // the entire state of the grid in one primitive array, see the layout above
+    private final short[] state;
+    private Cell[] cells; // lazily created Cell views of state, never copied
 
     /**
      * Constructs a new empty sudoku grid
      */
     public Grid(){
-        cells = new Cell[81];
-        for(int i = 0; i < cells.length; i++){
-            cells[i] = new Cell(i / 9, i % 9);
-        }
+        state = new short[STATE_SIZE];
+        reset();
+    }
+
+    /**
+     * Constructs a copy of the given grid
+     * @param other the grid to be copied
+     */
+    private Grid(Grid other){
+        state = other.state.clone();
     }
 
     /**
@@ -26,13 +59,42 @@ public class Grid implements Iterable<Cell> {
      */
     public Grid(String board){
         this();
-        for(int r = 0; r < 9; r++){
-            for(int c = 0; c < 9; c++){
-                getCell(r, c).solve(board.charAt(r * 9 + c) - 48);
+        load(board);
+    }
+
+    /**
+     * Empties this grid, as if it had just been constructed with Grid(). Allocates nothing
+     */
+    public void reset(){
+        Arrays.fill(state, (short) 0);
+        Arrays.fill(state, CANDS, CANDS + 81, (short) Cell.ALL_CANDS);
+        Arrays.fill(state, POSITIONS, POSITIONS + 27 * 9, (short) 0x1FF);
+    }
+
+    /**
+     * Replaces the contents of this grid with the puzzle in the given string, in the format of
+     * Grid(String). Reuses this grid and its cells instead of constructing a new grid, and allocates nothing
+     * @param board the puzzle to be loaded
+     * @requires string is in proper format
+     */
+    public void load(String board){
+        reset();
+        for(int coord = 0; coord < 81; coord++){
+            int value = board.charAt(coord) - '0';
+            if(1 <= value && value <= 9){
+                setCandMask(coord, Cell.bit(value));
             }
         }
     }
 
+    /**
+     * Replaces the contents of this grid with a copy of other, as clone does, without allocating
+     * @param other the grid to be copied
+     */
+    public void copyFrom(Grid other){
+        System.arraycopy(other.state, 0, state, 0, STATE_SIZE);
+    }
+
     /**
      * Solves the cell at the given row and column to the given value
      * @param row the row of the cell to be solved
@@ -40,7 +102,13 @@ public class Grid implements Iterable<Cell> {
      * @param value the value to be solved
      */
     public void solveCell(int row, int column, int value){
-        getCell(row, column).solve(value);
+        if(1 <= value && value <= 9){
+            int coord = row * 9 + column;
+            if((state[CANDS + coord] & Cell.bit(value)) == 0){
+                throw new IllegalStateException();
+            }
+            setCandMask(coord, Cell.bit(value));
+        }
     }
 
     /**
@@ -53,6 +121,131 @@ public class Grid implements Iterable<Cell> {
         return getCell(row, column).getCands();
     }
 
+    /**
+     * Returns the candidates of the cell at the given row and column as a mask
+     * @param row the row of the cell
+     * @param column the column of the cell
+     * @return the candidate mask at this position, bit (value - 1) is set iff value is a candidate
+     */
+    public int getCandMask(int row, int column){
+        return state[CANDS + row * 9 + column];
+    }
+
+    /**
+     * Returns the candidates of the cell at the given coord as a mask
+     * @param coord the coord of the cell, row * 9 + column
+     * @return the candidate mask at this position, bit (value - 1) is set iff value is a candidate
+     */
+    public int getCandMask(int coord){
+        return state[CANDS + coord];
+    }
+
+    /**
+     * Sets the candidates of the cell at the given coord
+     * @param coord the coord of the cell, row * 9 + column
+     * @param mask the new candidate mask, bit (value - 1) for each candidate
+     * @throws IllegalStateException if mask has no candidates or bits outside of 1-9
+     */
+    public void setCandMask(int coord, int mask){
+        Cell.checkMask(mask);
+        int old = state[CANDS + coord];
+        if(old == mask){
+            return;
+        }
+        state[CANDS + coord] = (short) mask;
+        int[] units = Units.CELL_UNITS[coord];
+        int[] unitPositions = Units.UNIT_POSITIONS[coord];
+        int changed = old ^ mask;
+        for(int i = 0; i < 3; i++){
+            int unitPositionsIndex = POSITIONS + units[i] * 9;
+            int position = 1 << unitPositions[i];
+            for(int bits = changed; bits != 0; bits &= bits - 1){
+                state[unitPositionsIndex + Integer.numberOfTrailingZeros(bits)] ^= position;
+            }
+        }
+        if((Integer.bitCount(old) == 2) != (Integer.bitCount(mask) == 2)){
+            state[BIVALUES + (coord >>> 4)] ^= 1 << (coord & 15);
+        }
+        if(Integer.bitCount(old) == 1){
+            updateSolved(coord, old, -1);
+        }
+        if(Integer.bitCount(mask) == 1){
+            updateSolved(coord, mask, 1);
+        }
+        // solving or unsolving a cell changes the unsolved positions of its candidates
+        int values = (Integer.bitCount(old) == 1) != (Integer.bitCount(mask) == 1) ? old | mask : changed;
+        for(int unit: units){
+            for(int bits = values; bits != 0; bits &= bits - 1){
+                updateStrongLink(unit, Integer.numberOfTrailingZeros(bits) + 1);
+            }
+        }
+    }
+
+    /**
+     * Updates whether the given value has a strong link in the given unit
+     * @param unit the unit, see Units
+     * @param value the value, 1-9
+     */
+    private void updateStrongLink(int unit, int value){
+        int index = STRONG_LINKS + (value - 1) * 2 + (unit >>> 4);
+        int bit = 1 << (unit & 15);
+        if(getCandCount(unit, value) == 2){
+            state[index] |= bit;
+        } else {
+            state[index] &= ~bit;
+        }
+    }
+
+    /**
+     * Updates the solved sections of state for a cell becoming solved or unsolved
+     * @param coord the coord of the cell
+     * @param valueBit the mask of the solved value of the cell
+     * @param change 1 if the cell became solved to the value, -1 if it no longer is
+     */
+    private void updateSolved(int coord, int valueBit, int change){
+        int value = Integer.numberOfTrailingZeros(valueBit);
+        int[] units = Units.CELL_UNITS[coord];
+        int[] unitPositions = Units.UNIT_POSITIONS[coord];
+        state[NUM_SOLVED] += change;
+        for(int i = 0; i < 3; i++){
+            int unit = units[i];
+            state[SOLVED_POSITIONS + unit] ^= 1 << unitPositions[i];
+            int before = state[SOLVED_COUNTS + unit * 9 + value];
+            int after = before + change;
+            state[SOLVED_COUNTS + unit * 9 + value] = (short) after;
+            // a cell is a duplicate when it is not the only one with its value in a unit
+            state[NUM_DUPLICATES] += Math.max(after - 1, 0) - Math.max(before - 1, 0);
+            if(after == 0){
+                state[SOLVED_VALS + unit] &= ~valueBit;
+            } else {
+                state[SOLVED_VALS + unit] |= valueBit;
+            }
+        }
+    }
+
+    /**
+     * Returns whether the cell at the given coord has exactly two candidates
+     * @param coord the coord of the cell, row * 9 + column
+     * @return true iff the cell at this position has two candidates
+     */
+    public boolean isBivalue(int coord){
+        return (state[BIVALUES + (coord >>> 4)] & (1 << (coord & 15))) != 0;
+    }
+
+    /**
+     * Returns one word of the bitset of cells with exactly two candidates,
+     * in the same layout as Units.PEER_MASKS
+     * @param word 0 for coords 0-63, 1 for coords 64-80
+     * @return bit coord % 64 is set iff the cell at coord has two candidates
+     */
+    public long getBivalues(int word){
+        int index = BIVALUES + word * 4;
+        return (state[index] & 0xFFFFL)
+                | (state[index + 1] & 0xFFFFL) << 16
+                | (state[index + 2] & 0xFFFFL) << 32
+                | (state[index + 3] & 0xFFFFL) << 48;
+    }
+
     /**
      * Returns the value of the cell at the given row and column
      * @param row the row of the cell to be solved
@@ -60,7 +253,11 @@ public class Grid implements Iterable<Cell> {
      * @return the value of the cell at this position
      */
     public int getVal(int row, int column){
-        return getCell(row, column).getVal();
+        int mask = state[CANDS + row * 9 + column];
+        if(Integer.bitCount(mask) != 1){
+            return 0;
+        }
+        return Integer.numberOfTrailingZeros(mask) + 1;
     }
 
     /**
@@ -70,7 +267,16 @@ public class Grid implements Iterable<Cell> {
      * @return the value of the cell at this position
      */
     public boolean isSolved(int row, int column){
-        return getCell(row, column).isSolved();
+        return Integer.bitCount(state[CANDS + row * 9 + column]) == 1;
+    }
+
+    /**
+     * Returns whether the cell is solved at the given coord
+     * @param coord the coord of the cell, row * 9 + column
+     * @return true iff the cell at this position has one candidate
+     */
+    public boolean isSolved(int coord){
+        return Integer.bitCount(state[CANDS + coord]) == 1;
     }
 
     /**
@@ -86,13 +292,7 @@ public class Grid implements Iterable<Cell> {
      * @return the number of solved cells in this grid
      */
     public int numSolved(){
-        int numSolved = 0;
-        for(Cell cell: this){
-            if(cell.isSolved()){
-                numSolved++;
-            }
-        }
-        return numSolved;
+        return state[NUM_SOLVED];
     }
 
 
@@ -104,7 +304,34 @@ public class Grid implements Iterable<Cell> {
      * @return true iff this cell's candidates contained value
      */
     public boolean removeCand(int row, int column, int value){
-        return getCell(row, column).remove(value);
+        int coord = row * 9 + column;
+        if(value < 1 || value > 9 || (state[CANDS + coord] & Cell.bit(value)) == 0){
+            return false;
+        }
+        setCandMask(coord, state[CANDS + coord] & ~Cell.bit(value));
+        return true;
+    }
+
+    /**
+     * Removes the candidates in mask from the cell at the given coord. Never throws on a contradiction:
+     * if the cell would be left without candidates it is not changed, and the grid is marked as
+     * contradicted instead, see hasContradiction
+     * @param coord the coord of the cell, row * 9 + column
+     * @param mask the candidates to be removed, bit (value - 1) for each value
+     * @return true iff a candidate was removed
+     */
+    public boolean removeCands(int coord, int mask){
+        int old = state[CANDS + coord];
+        int remaining = old & ~mask;
+        if(remaining == old){
+            return false;
+        }
+        if(remaining == 0){
+            markContradiction();
+            return false;
+        }
+        setCandMask(coord, remaining);
+        return true;
     }
 
     /**
@@ -113,7 +340,7 @@ public class Grid implements Iterable<Cell> {
      * @return the set of all solved values in a given row
      */
     public Set<Integer> getRow(int row){
-        return getVals(getRowCells(row));
+        return toSet(getSolvedMask(Units.ROW_UNIT + row));
     }
 
     /**
@@ -122,7 +349,7 @@ public class Grid implements Iterable<Cell> {
      * @return the set of all solved values in a given column
      */
     public Set<Integer> getColumn(int column){
-        return getVals(getColumnCells(column));
+        return toSet(getSolvedMask(Units.COLUMN_UNIT + column));
     }
 
     /**
@@ -132,20 +359,62 @@ public class Grid implements Iterable<Cell> {
      * @return the set of all solved values in a given box
      */
     public Set<Integer> getBox(int row, int column){
-        return getVals(getBoxCells(row, column));
+        return toSet(getSolvedMask(Units.BOX_UNIT + Units.boxOf(row, column)));
+    }
+
+    /**
+     * Returns the mask of all solved values in the given unit
+     * @param unit the unit to be looked at, see Units
+     * @return the mask of values solved in the unit, bit (value - 1) for each value
+     */
+    public int getSolvedMask(int unit){
+        return state[SOLVED_VALS + unit];
+    }
+
+    /**
+     * Returns the mask of the positions in the given unit that hold an unsolved cell
+     * with the given candidate. Position i is the cell at Units.UNITS[unit][i]
+     * @param unit the unit to be looked at, see Units
+     * @param value the candidate to be looked for
+     * @return the mask of positions of unsolved cells in the unit that have value as a candidate
+     */
+    public int getCandPositions(int unit, int value){
+        return state[POSITIONS + unit * 9 + value - 1] & ~state[SOLVED_POSITIONS + unit];
+    }
+
+    /**
+     * Returns the number of unsolved cells in the given unit that have the given candidate
+     * @param unit the unit to be looked at, see Units
+     * @param value the candidate to be counted
+     * @return the number of unsolved cells in the unit with value as a candidate
+     */
+    public int getCandCount(int unit, int value){
+        return Integer.bitCount(getCandPositions(unit, value));
+    }
+
+    /**
+     * Returns the units in which the given value is a candidate of exactly two unsolved cells.
+     * The two cells of each such unit are a strong link: one of them must be the value
+     * @param value the value, 1-9
+     * @return a mask with bit unit set for each such unit, see Units
+     */
+    public int getStrongLinkUnits(int value){
+        int index = STRONG_LINKS + (value - 1) * 2;
+        return (state[index] & 0xFFFF) | (state[index + 1] & 0xFFFF) << 16;
     }
 
     /**
-     * Returns all of the non -1 values of getVal for each cell in cells
-     * @param cells the list of cells to return the values of
-     * @return a set of getVal for each cell in cells (-1 excluded)
+     * Converts a candidate mask to a set of values
+     * @param mask the mask, bit (value - 1) for each value
+     * @return a new set of the values in mask
      */
-    private Set<Integer> getVals(List<Cell> cells){
+    private Set<Integer> toSet(int mask){
         Set<Integer> vals = new HashSet<>();
-        for(Cell cell: cells){
-            vals.add(cell.getVal());
+        for(int value = 1; value <= 9; value++){
+            if((mask & Cell.bit(value)) != 0){
+                vals.add(value);
+            }
         }
-        vals.remove(0);
         return vals;
     }
 
@@ -156,7 +425,7 @@ public class Grid implements Iterable<Cell> {
      * @return a map of 1-9 to the number of times they are candidates in the row
      */
     public Map<Integer,Integer> getRowCands(int row){
-        return getCandsMapping(getRowCells(row));
+        return getUnitCands(Units.ROW_UNIT + row);
     }
 
     /**
@@ -166,7 +435,7 @@ public class Grid implements Iterable<Cell> {
      * @return a map of 1-9 to the number of times they are candidates in the column
      */
     public Map<Integer, Integer> getColumnCands(int column){
-        return getCandsMapping(getColumnCells(column));
+        return getUnitCands(Units.COLUMN_UNIT + column);
     }
 
     /**
@@ -177,7 +446,21 @@ public class Grid implements Iterable<Cell> {
      * @return a map of 1-9 to the number of times they are candidates in the box
      */
     public Map<Integer, Integer> getBoxCands(int row, int column){
-        return getCandsMapping(getBoxCells(row, column));
+        return getUnitCands(Units.BOX_UNIT + Units.boxOf(row, column));
+    }
+
+    /**
+     * Returns a map of each value 1-9 mapped to the number of unsolved cells in the given unit
+     * that have it as a candidate
+     * @param unit the unit to be looked at, see Units
+     * @return a map of 1-9 to the number of times they are candidates in the unit
+     */
+    private Map<Integer, Integer> getUnitCands(int unit){
+        Map<Integer, Integer> cands = new HashMap<>(9);
+        for(int value = 1; value <= 9; value++){
+            cands.put(value, getCandCount(unit, value));
+        }
+        return cands;
     }
 
     /**
@@ -208,11 +491,7 @@ public class Grid implements Iterable<Cell> {
      * @return the list of all cells in a given row
      */
     public List<Cell> getRowCells(int row){
-        List<Cell> rCells = new ArrayList<>();
-        for(int c = 0; c < 9; c++){
-            rCells.add(getCell(row, c));
-        }
-        return rCells;
+        return cellList(Units.UNITS[Units.ROW_UNIT + row]);
     }
 
     /**
@@ -221,11 +500,7 @@ public class Grid implements Iterable<Cell> {
      * @return the list of all cells in a given column
      */
     public List<Cell> getColumnCells(int column){
-        List<Cell> cCells = new ArrayList<>();
-        for(int r = 0; r < 9; r++){
-            cCells.add(getCell(r, column));
-        }
-        return cCells;
+        return cellList(Units.UNITS[Units.COLUMN_UNIT + column]);
     }
 
     /**
@@ -247,15 +522,7 @@ public class Grid implements Iterable<Cell> {
      * @return the list of all cells
      */
     public List<Cell> getBoxCells(int row, int column){
-        List<Cell> bCells = new ArrayList<>();
-        int rX = row / 3;
-        int cX = column / 3;
-        for (int r = rX * 3; r < rX * 3 + 3; r++) {
-            for (int c = cX * 3; c < cX * 3 + 3; c++) {
-                bCells.add(getCell(r, c));
-            }
-        }
-        return bCells;
+        return cellList(Units.UNITS[Units.BOX_UNIT + Units.boxOf(row, column)]);
     }
 
     /**
@@ -266,30 +533,50 @@ public class Grid implements Iterable<Cell> {
      * @return a list of all cells "seen" by the cell at position (row, column)
      */
     public List<Cell> getSeenCells(int row, int column){
-        List<Cell> cells = new ArrayList<>();
-        for(int c = 0; c < 9; c++){
-            cells.add(getCell(row, c));
-        }
-        for(int r = 0; r < 9; r++){
-            if(r == row){
-                continue;
+        return cellList(Units.SEEN[row * 9 + column]);
+    }
+
+    /**
+     * Returns an unmodifiable list view of the cells at the given coords
+     * @param coords the coords of the cells, usually one of the tables of Units
+     * @return a list of the cells at coords, in the same order
+     */
+    private List<Cell> cellList(int[] coords){
+        return new AbstractList<>() {
+            @Override
+            public Cell get(int index) {
+                return getCell(coords[index]);
             }
-            cells.add(getCell(r, column));
-        }
-        int rX = row / 3;
-        int cX = column / 3;
-        for (int r = rX * 3; r < rX * 3 + 3; r++) {
-            if(r == row){
-                continue;
+
+            @Override
+            public int size() {
+                return coords.length;
+            }
+        };
+    }
+
+    /**
+     * Returns an iterator over the cells at the given coords
+     * @param coords the coords of the cells, usually one of the tables of Units
+     * @return an iterator over the cells at coords, in the same order
+     */
+    private Iterator<Cell> cellItr(int[] coords){
+        return new Iterator<>() {
+            int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < coords.length;
             }
-            for (int c = cX * 3; c < cX * 3 + 3; c++) {
-                if(c == column){
-                    continue;
+
+            @Override
+            public Cell next() {
+                if(index >= coords.length){
+                    throw new NoSuchElementException();
                 }
-                cells.add(getCell(r, c));
+                return getCell(coords[index++]);
             }
-        }
-        return cells;
+        };
     }
 
     /**
@@ -299,7 +586,24 @@ public class Grid implements Iterable<Cell> {
      * @return the Cell at the given position in this
      */
     public Cell getCell(int row, int column){
-        return cells[row * 9 + column];
+        return getCell(row * 9 + column);
+    }
+
+    /**
+     * Returns the Cell at the given coord in this
+     * @param coord the coord of the Cell to be returned, row * 9 + column
+     * @return the Cell at the given coord in this
+     */
+    public Cell getCell(int coord){
+        if(cells == null){
+            cells = new Cell[81];
+        }
+        Cell cell = cells[coord];
+        if(cell == null){
+            cell = new Cell(this, coord);
+            cells[coord] = cell;
+        }
+        return cell;
     }
 
     /**
@@ -347,39 +651,26 @@ public class Grid implements Iterable<Cell> {
      * with the same solved value
      */
     public boolean hasDuplicate(){
-        //check rows and column
-        for(int rc = 0; rc < 9; rc++){
-            if(hasDuplicate(rowItr(rc))){
-                return true;
-            }
-            if(hasDuplicate(columnItr(rc))){
-                return true;
-            }
-        }
-        //check boxes
-        for(int box = 0; box < 9; box++){
-            if(hasDuplicate(boxItr(box / 3, box % 3))){
-                return true;
-            }
-        }
-        return false;
+        return state[NUM_DUPLICATES] > 0;
     }
 
     /**
-     * Check to see if this itr iterates over multiple cells that represent the same val
-     * does not check for properties of unsolved cells
-     * @param itr the iterator over a given set of cells
-     * @return true iff this itr contains two cells with the same value
+     * Marks this grid as having no solution, for a contradiction found other than by removeCands,
+     * see hasContradiction
      */
-    private boolean hasDuplicate(Iterator<Cell> itr){
-        HashSet<Integer> rowVals = new HashSet<>(9);
-        while(itr.hasNext()) {
-            Cell cell = itr.next();
-            if(cell.isSolved() && !rowVals.add(cell.getVal())){
-                return true;
-            }
-        }
-        return false;
+    public void markContradiction(){
+        state[CONTRADICTION] = 1;
+    }
+
+    /**
+     * Returns whether this grid is known to have no solution, because two solved cells that see
+     * each other have the same value or because removeCands would have left a cell without candidates.
+     * Once set by removeCands or markContradiction, this stays set in the grid and its clones until the grid is reset
+     * or reloaded, see reset, load and copyFrom
+     * @return true iff this grid is known to have no solution
+     */
+    public boolean hasContradiction(){
+        return state[CONTRADICTION] != 0 || state[NUM_DUPLICATES] > 0;
     }
 
     /**
@@ -392,8 +683,9 @@ public class Grid implements Iterable<Cell> {
      * @return true iff val can be solved at this cell resulting in a simple valid state
      */
     public boolean canSolveSimple(int row, int column, int val){
-        return(!getRow(row).contains(val) && !getColumn(column).contains(val)
-                && !getBox(row, column).contains(val))
+        int[] units = Units.CELL_UNITS[row * 9 + column];
+        int solved = getSolvedMask(units[0]) | getSolvedMask(units[1]) | getSolvedMask(units[2]);
+        return 1 <= val && val <= 9 && (solved & Cell.bit(val)) == 0
                 && getCell(row, column).contains(val);
     }
 
@@ -403,7 +695,7 @@ public class Grid implements Iterable<Cell> {
      * @return an iterator over the given row
      */
     public Iterator<Cell> rowItr(int row){
-        return getRowCells(row).iterator();
+        return cellItr(Units.UNITS[Units.ROW_UNIT + row]);
     }
 
     /**
@@ -412,7 +704,7 @@ public class Grid implements Iterable<Cell> {
      * @return an iterator over the given column
      */
     public Iterator<Cell> columnItr(int column){
-        return getColumnCells(column).iterator();
+        return cellItr(Units.UNITS[Units.COLUMN_UNIT + column]);
     }
 
     /**
@@ -422,7 +714,7 @@ public class Grid implements Iterable<Cell> {
      * @return an iterator over the given box
      */
     public Iterator<Cell> boxItr(int row, int column){
-        return getBoxCells(row, column).iterator();
+        return cellItr(Units.UNITS[Units.BOX_UNIT + Units.boxOf(row, column)]);
     }
 
     /**
@@ -431,7 +723,7 @@ public class Grid implements Iterable<Cell> {
      * @return an iterator over all cells
      */
     public Iterator<Cell> iterator(){
-        return Arrays.asList(cells).iterator();
+        return getCells().iterator();
     }
 
     /**
@@ -439,18 +731,7 @@ public class Grid implements Iterable<Cell> {
      * @return a deep clone
      */
     public Grid clone(){
-        Grid copy = new Grid();
-        for(int r = 0; r < 9; r++){
-            for(int c = 0; c < 9; c++){
-                Cell cell = getCell(r, c);
-                for(int cand = 1; cand <= 9; cand++){
-                    if(!cell.contains(cand)){
-                        copy.removeCand(r, c, cand);
-                    }
-                }
-            }
-        }
-        return copy;
+        return new Grid(this);
     }
 
     /**
@@ -463,14 +744,6 @@ public class Grid implements Iterable<Cell> {
         if (!(other instanceof Grid)) {
             return false;
         }
-        Grid otherGrid = (Grid) other;
-        for (int r = 0; r < 9; r++) {
-            for (int c = 0; c < 9; c++) {
-                if(!this.getCell(r, c).equals(otherGrid.getCell(r, c))){
-                    return false;
-                }
-            }
-        }
-        return true;
+        return Arrays.equals(state, CANDS, CANDS + 81, ((Grid) other).state, CANDS, CANDS + 81);
     }
 }
\ No newline at end of file
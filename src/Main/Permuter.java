@@ -274,10 +274,12 @@ public class Permuter {
         Collections.shuffle(numList, random);
         for(int r = 0; r < 9; r++){
             for(int c = 0; c < 9; c++){
-                Set<Integer> cands = grid.getCell(r, c).getCands();
-                Set<Integer> newCands = new HashSet<>();
-                for(int cand: cands){
-                    newCands.add(numList.get(cand - 1));
+                int cands = grid.getCandMask(r, c);
+                int newCands = 0;
+                for(int cand = 1; cand <= 9; cand++){
+                    if((cands & Cell.bit(cand)) != 0){
+                        newCands |= Cell.bit(numList.get(cand - 1));
+                    }
                 }
                 changed.getCell(r, c).setCandidates(newCands);
             }
@@ -291,6 +293,6 @@ public class Permuter {
      * @param to the cell to be made a copy of from
      */
     private static void copyCell(Cell from, Cell to){
-        to.setCandidates(from.getCands());
+        to.setCandidates(from.getCandMask());
     }
 }
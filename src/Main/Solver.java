@@ -1,27 +1,79 @@
 package Main;
 
-import java.nio.charset.IllegalCharsetNameException;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 public class Solver {
     public Grid grid; // do not modify outside of class
-    private Queue<Integer> changedCoords;
-    private final boolean DEBUG = true;
-    private Grid solved;
-    private Set<Integer> removedRookBox; //a hashset of all cell coords that removeRookBox has been called on
+    private final CoordQueue changedCoords;
+    private VerificationPolicy verification; // how much of solve is checked
+    private Grid puzzle; // the grid when the verified solve started, null if solve is not being verified
+    private Grid solution; // the solution of puzzle, null if it has none or solve is not being verified
+    // the cells whose value has been removed from their peers, bit coord % 64 of word coord / 64
+    private final long[] propagated = new long[2];
+
+    // Forcing chains work on literals: literal (coord * 9 + value - 1) * 2 + 1 means value is in coord,
+    // literal (coord * 9 + value - 1) * 2 means value is not in coord
+    private static final int NUM_LITERALS = 81 * 9 * 2;
+    private static final int LITERAL_WORDS = (NUM_LITERALS + 63) / 64;
+    private static final long TRUE_LITERALS = 0xAAAAAAAAAAAAAAAAL; // the true literals of a word of a literal bitset
+    private static final int CHAIN_LENGTH = 6; // the number of links followed by the chains of solve
+    private final long[][] implied = new long[9][LITERAL_WORDS]; // the literals implied by each assumption
+    private final long[] commonImplied = new long[LITERAL_WORDS]; // the literals implied by every assumption
+    private final int[] assumptions = new int[9];
+    private final int[] chainQueue = new int[NUM_LITERALS]; // the literals reached, in the order they were reached
+    private final int[] chainDepth = new int[NUM_LITERALS]; // the number of links to each literal in chainQueue
+    private int chainTail;
+
+    // Forcing trials place each value of a set, one of which must be true, on its own snapshot of the grid
+    private static final int TRIAL_BRANCHES = 4; // the most values in a set that is tried
+    private static final int TRIAL_DEPTH = 32; // the number of hidden singles followed in each branch by solve
+    private final Solver[] trialSolvers = new Solver[TRIAL_BRANCHES]; // each with its own snapshot grid, created when first needed
+    private final int[] trialCoords = new int[TRIAL_BRANCHES]; // the cell placed in each branch
+    private final int[] trialValues = new int[TRIAL_BRANCHES]; // the value placed in each branch
+    private final int[] trialUnion = new int[81]; // the candidates left in some branch without a contradiction, by coord
+    private final List<Callable<Grid>> trials = new ArrayList<>(TRIAL_BRANCHES); // the task that follows each branch
+    private final List<Callable<Grid>> trialBatch = new ArrayList<>(TRIAL_BRANCHES); // the branches being tried
+    private int trialDepth; // the most hidden singles followed in each branch being tried
+
+    private static final int ALL_UNITS = (1 << 27) - 1;
+    private static final Technique[] TECHNIQUES = Technique.values(); // values() copies on every call
+    private static final int NUM_TECHNIQUES = TECHNIQUES.length;
+    private List<Technique> techniques; // the techniques run by solve, cheapest first
+    private TechniqueStats stats; // if not null, solve records into it and orders techniques by it
+    private int numEliminations; // the number of candidates removed by this solver
+    private boolean strict; // whether a contradiction throws rather than only being marked on the grid
+    // for each unit technique, by ordinal, the units with a digit that changed since the technique last ran on them
+    private final int[] dirtyUnits = new int[NUM_TECHNIQUES];
+    // for each unit technique and unit, the digits whose candidates changed in the unit since
+    // the technique last ran on it, bit (value - 1) for each digit
+    private final int[][] dirtyDigits = new int[NUM_TECHNIQUES][27];
+    // for each cell technique, the cells that changed since the technique last ran on them
+    private final CoordQueue[] dirtyCells = new CoordQueue[NUM_TECHNIQUES];
+    // the global techniques, bit ordinal for each, see Technique.isGlobal
+    private static final int GLOBAL_TECHNIQUES = globalTechniques();
+    // the global techniques that have not run on every cell since a cell last changed, bit ordinal for each
+    private int dirtyGlobals;
+
+    // Techniques do not change the grid while they search. They emit eliminations into a batch
+    // that commit applies at once, then the values of newly solved cells are removed from their
+    // peers with an explicit worklist rather than by recursion
+    private final int[] pendingMasks = new int[81]; // the candidates to be removed from each cell, as masks
+    private final CoordQueue pendingCells = new CoordQueue(); // the cells with a non zero pending mask
+    private final CoordQueue solvedCells = new CoordQueue(); // the solved cells whose value is to be removed from their peers
+
+    private ForkJoinPool speculationPool; // runs the techniques after the first on snapshots, null to run them in turn
+    private final Solver[] speculators = new Solver[NUM_TECHNIQUES]; // by ordinal, each with its own snapshot grid
+    // by ordinal, the task that runs the speculator of each technique, null until the speculator is created
+    private final List<Callable<Grid>> speculations = new ArrayList<>(Collections.nCopies(NUM_TECHNIQUES, null));
+    private final List<Callable<Grid>> speculationBatch = new ArrayList<>(NUM_TECHNIQUES); // the tasks run by speculate
 
     private void checkRep(){
-        if(DEBUG){
-            assert(!grid.hasDuplicate());
-            if(solved == null){
-                solved = grid.clone();
-                assert(Generator.bruteForceSolver(solved));
-            }
-            for(int r = 0; r < 9; r++){
-                for(int c = 0; c < 9; c++){
-                    assert(grid.getCands(r, c).contains(solved.getVal(r, c)));
-                }
-            }
+        if(puzzle != null){
+            verification.checkStep(puzzle, solution, grid);
         }
     }
 
@@ -31,125 +83,582 @@ public class Solver {
      */
     public Solver(Grid grid){
         this.grid = grid;
-        changedCoords = new QueueSet<Integer>();
-        for(int i = 0; i < 81; i++){
-            changedCoords.add(i);
+        changedCoords = new CoordQueue();
+        changedCoords.addAllCoords();
+        techniques = Technique.configuredOrder();
+        verification = VerificationPolicy.configured();
+        for(Technique technique: Technique.values()){
+            if(!technique.isUnitTechnique()){
+                dirtyCells[technique.ordinal()] = new CoordQueue();
+            }
+        }
+    }
+
+    /**
+     * Makes this solver solve another grid, as if it had been constructed for it. Keeps the
+     * techniques, statistics, verification policy and strict mode of this solver.
+     * Allocates nothing, so reusing a solver and its grid with Grid.load makes solving a puzzle
+     * allocation free once the techniques have warmed up, unless solve is verified or ordered by stats
+     * @param grid the grid to be solved
+     */
+    public void reset(Grid grid){
+        this.grid = grid;
+        changedCoords.clear();
+        changedCoords.addAllCoords();
+        Arrays.fill(propagated, 0);
+        while(!pendingCells.isEmpty()){
+            pendingMasks[pendingCells.removeCoord()] = 0;
         }
-        removedRookBox = new HashSet<>(81);
+        solvedCells.clear();
+        puzzle = null;
+        solution = null;
+    }
+
+    /**
+     * Sets the techniques used by solve and the order they are tried in, cheapest first.
+     * By default this is Technique.configuredOrder()
+     * @param techniques the techniques to be used, each at most once
+     */
+    public void setTechniques(List<Technique> techniques){
+        this.techniques = new ArrayList<>(techniques);
+    }
+
+    /**
+     * Returns the techniques used by solve, in the order they are tried
+     * @return an unmodifiable list of the techniques
+     */
+    public List<Technique> getTechniques(){
+        return Collections.unmodifiableList(techniques);
+    }
+
+    /**
+     * Sets the statistics used to adapt the order of the techniques. Each call to solve records
+     * the time and eliminations of every technique run into stats, and tries the techniques
+     * in the order given by stats.order
+     * @param stats the statistics to be used, possibly shared with other solvers, or null to
+     *              always use the order of getTechniques
+     */
+    public void setStats(TechniqueStats stats){
+        this.stats = stats;
+    }
+
+    /**
+     * Sets how much of solve is checked against the solution of the grid.
+     * By default this is VerificationPolicy.configured()
+     * @param verification the policy, possibly shared with other solvers
+     */
+    public void setVerification(VerificationPolicy verification){
+        this.verification = Objects.requireNonNull(verification);
     }
 
     /**
-     * Solves the grid that is stored in this logically
-     * @return true if the grid was solved
+     * Sets whether a contradiction throws. By default a contradiction only marks the grid,
+     * see Grid.hasContradiction, and stops solve, which is cheap enough for uniqueness checks
+     * and search. Strict mode throws where the contradiction is found, for debugging
+     * @param strict true to throw an IllegalStateException on a contradiction
+     */
+    public void setStrict(boolean strict){
+        this.strict = strict;
+    }
+
+    /**
+     * Sets the pool that speculation runs on. With a pool, once the cheapest technique has nothing
+     * left to do, solve runs every other technique at the same time, each on its own snapshot of
+     * the grid until it makes no more progress, and then applies all of their eliminations at once.
+     * This spends more work than trying the techniques in turn to find each step sooner.
+     * Forcing trials also try their branches at the same time on the pool.
+     * The snapshots and their solvers are kept and reused by every solve
+     * @param pool the pool the techniques are run on, or null to try the techniques in turn
+     */
+    public void setSpeculation(ForkJoinPool pool){
+        this.speculationPool = pool;
+    }
+
+    /**
+     * Solves the grid that is stored in this logically.
+     * The techniques are tried cheapest first, and each one only runs on what changed since it last ran.
+     * A technique is only tried once every cheaper technique has nothing left to do, and after
+     * any progress solving starts again from the cheapest technique, unless the techniques
+     * after the cheapest are run at the same time, see setSpeculation.
+     * Solving stops as soon as the grid is found to have no solution, see Grid.hasContradiction.
+     * The solve is checked as set by setVerification
+     * @return true if the grid was solved, false if it could not be or has no solution
+     * @throws IllegalStateException in strict mode, if the grid has no solution
      */
     public boolean solve(){
+        boolean checkSteps = verification.startSolve();
+        Grid start = checkSteps || verification.getMode() == VerificationPolicy.Mode.ASYNC ? grid.clone() : null;
+        if(checkSteps){
+            puzzle = start;
+            solution = start.clone();
+            if(!DancingLinks.solve(solution)){
+                solution = null;
+            }
+        }
+        markAllDirty();
         runNakedSingle(changedCoords);
-        while(!grid.isSolved() && !changedCoords.isEmpty()){
-            int changed = changedCoords.remove();
-            int row = changed / 9;
-            int column = changed % 9;
-
-            if(!grid.isSolved(row, column)){
-                hiddenSingle(row, column, changedCoords);
-                for(int n = 2; n <= 7; n++){
-                    nakedCandidateN(row, column, n, changedCoords);
-                }
-                pointingCandidates(row, column, changedCoords);
-                //System.out.println(row + " " + column);
-                claimingCandidates(row, column, changedCoords);
-                xWing(row, column, changedCoords);
-                xYWing(row, column, changedCoords);
+        checkRep();
+        List<Technique> order = stats == null ? techniques : stats.order(techniques);
+        int next = 0;
+        while(!grid.isSolved() && !grid.hasContradiction() && next < order.size()){
+            changedCoords.clear();
+            if(speculationPool != null && next > 0){
+                if(!speculate(order.subList(next, order.size()), changedCoords)){
+                    break;
+                }
+                checkRep();
+                next = 0;
+            } else if(runTechnique(order.get(next), changedCoords)){
                 checkRep();
+                next = 0;
+            } else {
+                next++;
             }
         }
+        puzzle = null;
+        solution = null;
+        if(start != null){
+            verification.checkResult(start, grid.clone());
+        }
         return grid.isSolved();
     }
 
-    public boolean runNakedSingle(Queue<Integer> changedCoords){
-        boolean changed = false;
-        for(int r = 0; r < 9; r++){
-            for(int c = 0; c < 9; c++){
-                changed |= nakedSingle(r, c, changedCoords);
+    /**
+     * Marks every digit of every unit and every cell as changed for every technique
+     */
+    private void markAllDirty(){
+        for(Technique technique: TECHNIQUES){
+            int index = technique.ordinal();
+            if(technique.isUnitTechnique()){
+                dirtyUnits[index] = ALL_UNITS;
+                Arrays.fill(dirtyDigits[index], Cell.ALL_CANDS);
+            } else {
+                dirtyCells[index].addAllCoords();
             }
         }
-        return changed;
+        dirtyGlobals = GLOBAL_TECHNIQUES;
     }
 
-    private boolean removeAndCallNaked(int row, int column, int val, Queue<Integer> changedCoords){
-        return removeAndCallNaked(grid.getCell(row, column), val, changedCoords);
+    /**
+     * Returns the global techniques, see Technique.isGlobal
+     * @return the mask of the global techniques, bit ordinal for each
+     */
+    private static int globalTechniques(){
+        int globals = 0;
+        for(Technique technique: TECHNIQUES){
+            if(technique.isGlobal()){
+                globals |= 1 << technique.ordinal();
+            }
+        }
+        return globals;
     }
 
-    private boolean removeAndCallNaked(Cell cell, int val, Queue<Integer> changedCoords){
-        if(cell.remove(val)){
-            changedCoords.add(cell.getCoord());
-            if(cell.isSolved()){
-                nakedSingle(cell.getRow(), cell.getColumn(), changedCoords);
+    /**
+     * Marks the given digits as changed in a cell and its row, column and box for every technique,
+     * and every cell as changed for the global techniques
+     * @param coord the coord of the changed cell
+     * @param digits the digits whose candidates changed, bit (value - 1) for each digit
+     */
+    private void markDirty(int coord, int digits){
+        int[] units = Units.CELL_UNITS[coord];
+        dirtyGlobals = GLOBAL_TECHNIQUES;
+        for(int index = 0; index < NUM_TECHNIQUES; index++){
+            if((GLOBAL_TECHNIQUES & (1 << index)) != 0){
+                continue;
+            }
+            if(dirtyCells[index] != null){
+                dirtyCells[index].addCoord(coord);
+            } else {
+                for(int unit: units){
+                    dirtyDigits[index][unit] |= digits;
+                    dirtyUnits[index] |= 1 << unit;
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs a technique on the units or cells that changed since it last ran on them,
+     * stopping as soon as it makes progress. Whatever is left stays marked as changed
+     * @param technique the technique to be run
+     * @param changedCoords a queue of coords. All changed cells will have their coords
+     *        added to changedCoords
+     * @return true if a change was made
+     */
+    private boolean runTechnique(Technique technique, Queue<Integer> changedCoords){
+        if(stats == null){
+            return runDirty(technique, changedCoords);
+        }
+        int eliminationsBefore = numEliminations;
+        long start = System.nanoTime();
+        boolean didChange = runDirty(technique, changedCoords);
+        stats.record(technique, System.nanoTime() - start, numEliminations - eliminationsBefore);
+        return didChange;
+    }
+
+    /**
+     * Runs a technique on the units or cells that changed since it last ran on them,
+     * or on every cell for a global technique once any cell changed, stopping as soon as it makes progress
+     * @param technique the technique to be run
+     * @param changedCoords a queue of coords. All changed cells will have their coords
+     *        added to changedCoords
+     * @return true if a change was made
+     */
+    private boolean runDirty(Technique technique, Queue<Integer> changedCoords){
+        int index = technique.ordinal();
+        if(technique.isUnitTechnique()){
+            while(dirtyUnits[index] != 0){
+                int unit = Integer.numberOfTrailingZeros(dirtyUnits[index]);
+                int digits = dirtyDigits[index][unit];
+                dirtyUnits[index] &= ~(1 << unit);
+                dirtyDigits[index][unit] = 0;
+                if(runOnUnit(technique, unit, digits)){
+                    commit(changedCoords);
+                    return true;
+                }
+            }
+        } else {
+            CoordQueue cells = dirtyCells[index];
+            if((dirtyGlobals & (1 << index)) != 0){
+                dirtyGlobals &= ~(1 << index);
+                cells.addAllCoords();
+            }
+            while(!cells.isEmpty()){
+                int coord = cells.removeCoord();
+                if(!grid.isSolved(coord) && runOnCell(technique, coord / 9, coord % 9, changedCoords)){
+                    return true;
+                }
             }
-            return true;
         }
         return false;
     }
 
-    private boolean removeAllAndCallNaked(int row, int column, Collection<Integer> vals, Queue<Integer> changedCoords){
-        return removeAllAndCallNaked(grid.getCell(row, column), vals, changedCoords);
+    /**
+     * Runs each technique on its own snapshot of the grid at the same time on the speculation pool,
+     * then keeps in each cell only the candidates left in every snapshot, see mergeGrid, and commits.
+     * The snapshots all start from the grid, so whatever one of them eliminates can be eliminated
+     * from the grid, and a snapshot with a contradiction means the grid has no solution
+     * @param techniques the techniques to be run
+     * @param changedCoords a queue of coords. All changed cells will have their coords
+     *        added to changedCoords
+     * @return true if a change was made
+     * @throws IllegalStateException in strict mode, if the grid has no solution
+     */
+    private boolean speculate(List<Technique> techniques, Queue<Integer> changedCoords){
+        speculationBatch.clear();
+        for(int i = 0; i < techniques.size(); i++){
+            speculationBatch.add(speculator(techniques.get(i)));
+        }
+        try {
+            invokeAll(speculationBatch);
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        for(int i = 0; i < techniques.size(); i++){
+            Grid snapshot = speculators[techniques.get(i).ordinal()].grid;
+            if(snapshot.hasContradiction()){
+                contradiction(techniques.get(i) + " found a contradiction on a snapshot of the grid");
+                break;
+            }
+            mergeGrid(snapshot);
+        }
+        return commit(changedCoords);
     }
 
-    private boolean removeAllAndCallNaked(Cell cell, Collection<Integer> vals, Queue<Integer> changedCoords){
-        boolean didChange = false;
-        for(Integer val: vals){
-            didChange |= removeAndCallNaked(cell, val, changedCoords);
+    /**
+     * Marks the grid as having no solution, for a contradiction found by a technique rather than
+     * by removing the last candidate of a cell
+     * @param reason what showed that the grid has no solution
+     * @throws IllegalStateException in strict mode, with reason as its message
+     */
+    private void contradiction(String reason){
+        if(strict){
+            throw new IllegalStateException(reason);
+        }
+        grid.markContradiction();
+    }
+
+    /**
+     * Runs tasks at the same time on the speculation pool and waits for all of them
+     * @param tasks the tasks to be run
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private void invokeAll(List<Callable<Grid>> tasks) throws InterruptedException {
+        for(Future<Grid> task: speculationPool.invokeAll(tasks)){
+            try {
+                task.get();
+            } catch (ExecutionException e){
+                if(e.getCause() instanceof RuntimeException){
+                    throw (RuntimeException) e.getCause();
+                }
+                if(e.getCause() instanceof Error){
+                    throw (Error) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
         }
-        return didChange;
     }
 
-    private void solveAndCallNaked(int row, int column, int val, Queue<Integer> changedCoords){
-        solveAndCallNaked(grid.getCell(row, column), val, changedCoords);
+    /**
+     * Resets the solver that speculates with a technique to a snapshot of this.grid
+     * @param technique the technique the solver is to run
+     * @return the task that runs technique on the snapshot until it makes no more progress,
+     *         kept with the solver
+     */
+    private Callable<Grid> speculator(Technique technique){
+        int index = technique.ordinal();
+        Solver speculator = speculators[index];
+        if(speculator == null){
+            Solver created = new Solver(new Grid());
+            created.setVerification(VerificationPolicy.OFF);
+            speculators[index] = created;
+            speculations.set(index, () -> created.runToFixpoint(technique));
+            speculator = created;
+        }
+        speculator.strict = strict;
+        speculator.speculationPool = speculationPool;
+        speculator.grid.copyFrom(grid);
+        speculator.reset(speculator.grid);
+        return speculations.get(index);
     }
 
-    private void solveAndCallNaked(Cell cell, int val, Queue<Integer> changedCoords){
-        cell.solve(val);
-        nakedSingle(cell.getRow(), cell.getColumn(), changedCoords);
+    /**
+     * Runs a technique on every unit or cell until it makes no more progress
+     * @param technique the technique to be run
+     * @return this.grid
+     */
+    private Grid runToFixpoint(Technique technique){
+        markAllDirty();
+        changedCoords.clear();
+        while(!grid.isSolved() && !grid.hasContradiction() && runDirty(technique, changedCoords)){
+            changedCoords.clear();
+        }
+        return grid;
     }
 
     /**
-     * If the given cell is solved, removes that cells value as a candidate
-     * from cells in row, column, and box
-     * @param row row of cell
-     * @param column column of cell
+     * Runs a unit technique on the given digits of a unit. Its eliminations are left for commit
+     * @param technique the unit technique
+     * @param unit the unit, see Units
+     * @param digits the digits that changed in the unit, bit (value - 1) for each digit
+     * @return true if an elimination was found
+     */
+    private boolean runOnUnit(Technique technique, int unit, int digits){
+        boolean didChange = false;
+        switch(technique){
+            case HIDDEN_SINGLES:
+                return hiddenSingleInUnit(unit, digits);
+            case INTERSECTIONS:
+                if(unit >= Units.BOX_UNIT){
+                    return pointingCandidatesInBox(unit, digits);
+                }
+                return claimingCandidatesInUnit(unit, unit < Units.COLUMN_UNIT ? 0 : 1, digits);
+            case NAKED_SUBSETS:
+                //naked subsets depend on every candidate of the unit's cells
+                for(int n = 2; n <= 4; n++){
+                    didChange |= nakedCandidateNInUnit(unit, n);
+                }
+                return didChange;
+            case HIDDEN_SUBSETS:
+                for(int n = 2; n <= 4; n++){
+                    didChange |= hiddenCandidateNInUnit(unit, n, digits);
+                }
+                return didChange;
+            case FISH:
+                //a fish only depends on the positions of its digit in its base lines
+                if(unit >= Units.BOX_UNIT){
+                    return false;
+                }
+                int baseType = unit < Units.COLUMN_UNIT ? Units.ROW_UNIT : Units.COLUMN_UNIT;
+                for(int bits = digits; bits != 0; bits &= bits - 1){
+                    for(int size = 2; size <= 4; size++){
+                        didChange |= fish(baseType, unit - baseType, Integer.numberOfTrailingZeros(bits) + 1,
+                                size, true);
+                    }
+                }
+                return didChange;
+            default:
+                throw new IllegalArgumentException(technique + " is not a unit technique");
+        }
+    }
+
+    /**
+     * Runs a cell technique on a cell
+     * @param technique the cell technique
+     * @param row the row of the cell
+     * @param column the column of the cell
      * @param changedCoords a queue of coords. All changed cells will have their coords
      *        added to changedCoords
      * @return true if a change was made
      */
-    public boolean nakedSingle(int row, int column, Queue<Integer> changedCoords){
+    private boolean runOnCell(Technique technique, int row, int column, Queue<Integer> changedCoords){
+        switch(technique){
+            case XY_WING:
+                return xYWing(row, column, changedCoords);
+            case XYZ_WING:
+                return xYZWing(row, column, changedCoords);
+            case W_WING:
+                return wWing(row, column, changedCoords);
+            case REMOTE_PAIR:
+                return remotePair(row, column, CHAIN_LENGTH, changedCoords);
+            case X_CHAIN:
+                return xChain(row, column, CHAIN_LENGTH, changedCoords);
+            case ALTERNATING_INFERENCE_CHAIN:
+                return alternatingInferenceChain(row, column, CHAIN_LENGTH, changedCoords);
+            case FORCING_CHAINS:
+                return forcingChains(row, column, CHAIN_LENGTH, changedCoords);
+            case FORCING_TRIALS:
+                return forcingTrials(row, column, TRIAL_DEPTH, changedCoords);
+            default:
+                throw new IllegalArgumentException(technique + " is not a cell technique");
+        }
+    }
+
+    public boolean runNakedSingle(Queue<Integer> changedCoords){
+        for(int coord = 0; coord < 81; coord++){
+            if(grid.isSolved(coord)){
+                solvedCells.addCoord(coord);
+            }
+        }
+        return commit(changedCoords);
+    }
+
+    /**
+     * Adds coord to changedCoords, without boxing if changedCoords is a CoordQueue
+     * @param coord the coord of the changed cell
+     * @param changedCoords a queue of coords of changed cells
+     */
+    private static void markChanged(int coord, Queue<Integer> changedCoords){
+        if(changedCoords instanceof CoordQueue){
+            ((CoordQueue) changedCoords).addCoord(coord);
+        } else {
+            changedCoords.add(coord);
+        }
+    }
+
+    /**
+     * Adds candidates of a cell to the eliminations to be made by the next commit
+     * @param coord the coord of the cell
+     * @param digits the candidates to be removed, bit (value - 1) for each value
+     * @return true iff a candidate of the cell was added that was not already to be removed
+     */
+    private boolean eliminate(int coord, int digits){
+        int removed = grid.getCandMask(coord) & digits & ~pendingMasks[coord];
+        if(removed == 0){
+            return false;
+        }
+        pendingMasks[coord] |= removed;
+        pendingCells.addCoord(coord);
+        return true;
+    }
+
+    /**
+     * Adds candidates of every cell in a bitset of coords to the eliminations to be made by the next commit
+     * @param wordZero the coords 0-63 of the cells, bit coord
+     * @param wordOne the coords 64-80 of the cells, bit coord - 64
+     * @param digits the candidates to be removed, bit (value - 1) for each value
+     * @return true iff a candidate was added that was not already to be removed
+     */
+    private boolean eliminate(long wordZero, long wordOne, int digits){
         boolean didChange = false;
-        if(grid.isSolved(row, column) && !removedRookBox.contains(row * 9 + column)){
-            removedRookBox.add(row * 9 + column);
-            int val = grid.getVal(row, column);
-            return
-                removeFromItr(grid.rowItr(row), val, changedCoords) |
-                removeFromItr(grid.columnItr(column), val, changedCoords) |
-                removeFromItr(grid.boxItr(row, column), val, changedCoords);
+        for(long bits = wordZero; bits != 0; bits &= bits - 1){
+            didChange |= eliminate(Long.numberOfTrailingZeros(bits), digits);
+        }
+        for(long bits = wordOne; bits != 0; bits &= bits - 1){
+            didChange |= eliminate(64 + Long.numberOfTrailingZeros(bits), digits);
         }
         return didChange;
     }
 
     /**
-     * Removes the given value from all non solved cells in the iterator
-     * @param itr the iterator of cells to be removed
-     * @param value the value to be removed from those cells
-     * @return true if a cell was modified
+     * Applies every pending elimination, then removes the value of every newly solved cell
+     * from its peers until no more cells are solved
+     * @param changedCoords a queue of coords. All changed cells will have their coords
+     *        added to changedCoords
+     * @return true iff a candidate was removed
+     * @throws IllegalStateException in strict mode, if a cell would be left without candidates
      */
-    private boolean removeFromItr(Iterator<Cell> itr, int value, Queue<Integer> changedCoords){
+    private boolean commit(Queue<Integer> changedCoords){
         boolean didChange = false;
-        while(itr.hasNext()){
-            Cell next = itr.next();
-            if(!next.isSolved()){
-                didChange |= removeAndCallNaked(next, value, changedCoords);
+        while(!pendingCells.isEmpty()){
+            int coord = pendingCells.removeCoord();
+            int digits = pendingMasks[coord];
+            pendingMasks[coord] = 0;
+            didChange |= removeCands(coord, digits, changedCoords);
+        }
+        while(!solvedCells.isEmpty()){
+            int coord = solvedCells.removeCoord();
+            long bit = 1L << coord;
+            if((propagated[coord >>> 6] & bit) != 0){
+                continue;
+            }
+            propagated[coord >>> 6] |= bit;
+            int value = grid.getCandMask(coord);
+            for(int peer: Units.PEERS[coord]){
+                if(!grid.isSolved(peer)){
+                    didChange |= removeCands(peer, value, changedCoords);
+                } else if(strict && grid.getCandMask(peer) == value){
+                    throw new IllegalStateException("Cells " + coord + " and " + peer + " have the same value");
+                }
             }
         }
         return didChange;
     }
 
+    /**
+     * Removes candidates from a cell, queueing the cell to have its value removed from its peers
+     * if it becomes solved. This is the only place solving removes candidates from the grid,
+     * and so the only place a contradiction is found
+     * @param coord the coord of the cell
+     * @param digits the candidates to be removed, bit (value - 1) for each value
+     * @param changedCoords a queue of coords. All changed cells will have their coords
+     *        added to changedCoords
+     * @return true iff a candidate was removed
+     * @throws IllegalStateException in strict mode, if the cell would be left without candidates
+     */
+    private boolean removeCands(int coord, int digits, Queue<Integer> changedCoords){
+        int mask = grid.getCandMask(coord);
+        int removed = mask & digits;
+        if(removed == 0){
+            return false;
+        }
+        if(!grid.removeCands(coord, digits)){
+            //the grid is marked as contradicted and the cell keeps its candidates
+            if(strict){
+                throw new IllegalStateException("Cell " + coord + " has no candidates left");
+            }
+            return false;
+        }
+        int remaining = mask & ~digits;
+        numEliminations += Integer.bitCount(removed);
+        markChanged(coord, changedCoords);
+        boolean isSolved = Integer.bitCount(remaining) == 1;
+        //a newly solved cell also changes the unsolved positions of its value
+        markDirty(coord, removed | (isSolved ? remaining : 0));
+        if(isSolved){
+            solvedCells.addCoord(coord);
+        }
+        return true;
+    }
+
+    /**
+     * If the given cell is solved, removes that cells value as a candidate
+     * from cells in row, column, and box
+     * @param row row of cell
+     * @param column column of cell
+     * @param changedCoords a queue of coords. All changed cells will have their coords
+     *        added to changedCoords
+     * @return true if a change was made
+     */
+    public boolean nakedSingle(int row, int column, Queue<Integer> changedCoords){
+        int coord = row * 9 + column;
+        if(grid.isSolved(coord)){
+            solvedCells.addCoord(coord);
+        }
+        return commit(changedCoords);
+    }
+
     /**
      * Checks for a cell within the given row, column, or local box that is the only
      * cell with a given candidate in that row, column, or box and solves it to that candidate
@@ -160,33 +669,28 @@ public class Solver {
      * @return true if a change was made
      */
     public boolean hiddenSingle(int row, int column, Queue<Integer> changedCoords){
-        return
-            hiddenSingle(grid.rowItr(row), grid.getRowCands(row), changedCoords) |
-            hiddenSingle(grid.columnItr(column), grid.getColumnCands(column), changedCoords) |
-            hiddenSingle(grid.boxItr(row, column), grid.getBoxCands(row, column), changedCoords);
+        int[] units = Units.CELL_UNITS[row * 9 + column];
+        hiddenSingleInUnit(units[0], Cell.ALL_CANDS);
+        hiddenSingleInUnit(units[1], Cell.ALL_CANDS);
+        hiddenSingleInUnit(units[2], Cell.ALL_CANDS);
+        return commit(changedCoords);
     }
 
     /**
-     * Checks for a cand key in frequency that has frequency 1, then solves its corresponding cell
-     * to that cand
-     * @param itr the itr of the cells corresponding to the frequency map
-     * @param frequency a frequency map corresponding to the get___cands from Grid
-     * @param changedCoords a queue of coords. All changed cells will have their coords
-     *        added to changedCoords
-     * @return true if a change was made
+     * Checks for a cand that is a candidate of only one unsolved cell in the given unit,
+     * then removes the other candidates of that cell
+     * @param unit the unit to be checked, see Units
+     * @param cands the candidates to be checked, bit (value - 1) for each candidate
+     * @return true if an elimination was found
      */
-    private boolean hiddenSingle(Iterator<Cell> itr, Map<Integer, Integer> frequency, Queue<Integer> changedCoords){
+    private boolean hiddenSingleInUnit(int unit, int cands){
         boolean didChange = false;
-        for(int cand: frequency.keySet()){
-            if(frequency.get(cand) == 1){
-                while(itr.hasNext()) {
-                    Cell cell = itr.next();
-                    if(cell.contains(cand)){
-                        solveAndCallNaked(cell, cand, changedCoords);
-                        didChange = true;
-                        break;
-                    }
-                }
+        for(int bits = cands; bits != 0; bits &= bits - 1){
+            int cand = Integer.numberOfTrailingZeros(bits) + 1;
+            int positions = grid.getCandPositions(unit, cand);
+            if(Integer.bitCount(positions) == 1){
+                int coord = Units.UNITS[unit][Integer.numberOfTrailingZeros(positions)];
+                didChange |= eliminate(coord, ~Cell.bit(cand));
             }
         }
         return didChange;
@@ -220,91 +724,140 @@ public class Solver {
      * @return true if a change was made
      */
     public boolean nakedCandidateN(int row, int column, int n, Queue<Integer> changedCoords){
-        return
-                nakedCandidateN(grid.getRowCells(row), n, changedCoords) |
-                nakedCandidateN(grid.getColumnCells(column), n, changedCoords) |
-                nakedCandidateN(grid.getBoxCells(row, column), n, changedCoords);
+        int[] units = Units.CELL_UNITS[row * 9 + column];
+        nakedCandidateNInUnit(units[0], n);
+        nakedCandidateNInUnit(units[1], n);
+        nakedCandidateNInUnit(units[2], n);
+        return commit(changedCoords);
     }
 
     /**
-     * Sets up and calls the recursive naked candidate finder for naked candidate sets
-     * of size n
-     * @param cells a list of cells for the naked candidate to be found in
-     * @param n the size of naked candidate sets. 2 <= n <= 8
-     * @param changedCoords a queue of coords. All changed cells will have their coords
-     *        added to changedCoords
-     * @return true iff a change was made
+     * Checks for naked candidate sets of size n in one unit by combining the candidate masks
+     * of every set of n unsolved cells that each have at most n candidates
+     * @param unit the unit to be checked, see Units
+     * @param n the size of naked candidate sets, 2 <= n <= 8
+     * @return true iff an elimination was found
      */
-    private boolean nakedCandidateN(List<Cell> cells, int n, Queue<Integer> changedCoords){
-        List<Cell> unsolved = keepCandRange(cells, 2, 9);
-        List<Cell> nCands = keepCandRange(unsolved, 2, n);
-
+    private boolean nakedCandidateNInUnit(int unit, int n){
+        int[] coords = Units.UNITS[unit];
+        int unsolved = 0; // the positions of the unsolved cells
+        int small = 0; // the positions of the unsolved cells with [2,n] candidates
+        for(int i = 0; i < 9; i++){
+            int size = Integer.bitCount(grid.getCandMask(coords[i]));
+            if(size >= 2){
+                unsolved |= 1 << i;
+                if(size <= n){
+                    small |= 1 << i;
+                }
+            }
+        }
         //if not enough number of cells with 2 to n candidates or not enough unsolved cells such that
         //no change would be made
-        if(nCands.size() < n || unsolved.size() < n + 1){
-            return false;
-        }
-        return nakedCandidateNRecursiveHelper(unsolved, nCands, new StackSet(), new Stack<>(),
-                n, 0, changedCoords);
-    }
-
-    /**
-     * Recursive checker for naked candidate sets
-     * @param unsolved The list of unsolved cells in the local group
-     * @param nCands the list of unsolved cells in the local group with [2,n] candidates
-     * @param stackSet a set of cands that are in the current set of cells being looked at
-     * @param cellsOnStack the cells that have had their candidates put in stackSet
-     *                     by this method
-     * @param n the size of the naked candidate set to be checked
-     * @param start the start index in nCands to start looking at - keeps track of where to add
-     *              cell cands to the start from at the beginning of each method call
-     * @param changedCoords a queue of coords. All changed cells will have their coords
-     *        added to changedCoords
-
-     * @return true iff a change was made
-     */
-    private boolean nakedCandidateNRecursiveHelper(List<Cell> unsolved, List<Cell> nCands,
-                                                   StackSet stackSet, Stack<Cell> cellsOnStack,
-                                                   int n, int start, Queue<Integer> changedCoords){
-        //general idea of method is to recursively consider the set union of all nCands.size() choose n possibilities
-        //if there aren't enough remaining cells to be permuted over, return false
-        if(nCands.size() - start + cellsOnStack.size() < n){
+        if(Integer.bitCount(small) < n || Integer.bitCount(unsolved) < n + 1){
             return false;
         }
         boolean didChange = false;
-        for(int i = start; i < nCands.size(); i++) {
-            cellsOnStack.push(nCands.get(i));
-            stackSet.push(nCands.get(i).getCands());
-            if(cellsOnStack.size() == n){
-                if(stackSet.asSet().size() == stackSet.size()){
-                    for(Cell cell: unsolved){
-                        if(!cellsOnStack.contains(cell)){
-                            didChange |= removeAllAndCallNaked(cell, stackSet.asSet(), changedCoords);
-                        }
-                    }
+        for(int set: Units.SUBSETS[n]){
+            if((set & ~small) != 0){
+                continue;
+            }
+            int union = 0;
+            for(int bits = set; bits != 0 && Integer.bitCount(union) <= n; bits &= bits - 1){
+                union |= grid.getCandMask(coords[Integer.numberOfTrailingZeros(bits)]);
+            }
+            if(Integer.bitCount(union) == n){
+                for(int others = unsolved & ~set; others != 0; others &= others - 1){
+                    didChange |= eliminate(coords[Integer.numberOfTrailingZeros(others)], union);
                 }
-            } else if (stackSet.size() <= n){
-                didChange |= nakedCandidateNRecursiveHelper(unsolved, nCands, stackSet, cellsOnStack, n, start + 1, changedCoords);
             }
-            start++;
-            stackSet.pop();
-            cellsOnStack.pop();
         }
         return didChange;
     }
 
+    /**
+     * Checks for two candidates that appear in only the same two cells of a local container.
+     * This is a hidden pair. Removes all other candidates from those two cells.
+     * @param row the local row to be checked
+     * @param column the local column to be checked
+     * @param changedCoords a queue of coords. All changed cells will have their coords
+     *        added to changedCoords
+     * @return true if a change was made
+     */
     public boolean hiddenCandidatePair(int row, int column, Queue<Integer> changedCoords){
-        return false;
+        return hiddenCandidateN(row, column, 2, changedCoords);
     }
 
+    /**
+     * Checks for n candidates that appear in only the same n cells of a local container.
+     * This is a hidden n-set. Removes all other candidates from those cells.
+     * This is done for n of 2 through 4 inclusive
+     * @param row the local row to be checked
+     * @param column the local column to be checked
+     * @param changedCoords a queue of coords. All changed cells will have their coords
+     *        added to changedCoords
+     * @return true if a change was made
+     */
     public boolean hiddenCandidates(int row, int column, Queue<Integer> changedCoords){
         return hiddenCandidateN(row, column, 2, changedCoords)
                 | hiddenCandidateN(row, column, 3, changedCoords)
                 | hiddenCandidateN(row, column, 4, changedCoords);
     }
 
+    /**
+     * Checks for n candidates that appear in only the same n cells of a local container.
+     * This is a hidden n-set. Removes all other candidates from those cells.
+     * @param row the local row to be checked
+     * @param column the local column to be checked
+     * @param n the size of set of hidden candidates to be checked
+     * @param changedCoords a queue of coords. All changed cells will have their coords
+     *        added to changedCoords
+     * @return true if a change was made
+     */
     public boolean hiddenCandidateN(int row, int column, int n, Queue<Integer> changedCoords){
-        return false;
+        int[] units = Units.CELL_UNITS[row * 9 + column];
+        hiddenCandidateNInUnit(units[0], n, Cell.ALL_CANDS);
+        hiddenCandidateNInUnit(units[1], n, Cell.ALL_CANDS);
+        hiddenCandidateNInUnit(units[2], n, Cell.ALL_CANDS);
+        return commit(changedCoords);
+    }
+
+    /**
+     * Checks for hidden candidate sets of size n in one unit by combining the position
+     * masks of every set of n candidates that each appear in at most n cells
+     * @param unit the unit to be checked, see Units
+     * @param n the size of set of hidden candidates to be checked
+     * @param changed only sets with at least one of these candidates are checked, bit (value - 1) for each
+     * @return true if an elimination was found
+     */
+    private boolean hiddenCandidateNInUnit(int unit, int n, int changed){
+        //the candidates that could be part of a hidden set
+        int cands = 0;
+        for(int cand = 1; cand <= 9; cand++){
+            int count = grid.getCandCount(unit, cand);
+            if(count >= 1 && count <= n){
+                cands |= Cell.bit(cand);
+            }
+        }
+        if(Integer.bitCount(cands) < n){
+            return false;
+        }
+        boolean didChange = false;
+        for(int set: Units.SUBSETS[n]){
+            if((set & ~cands) != 0 || (set & changed) == 0){
+                continue;
+            }
+            //every candidate of cands has a position in the unit
+            int union = 0;
+            for(int bits = set; bits != 0; bits &= bits - 1){
+                union |= grid.getCandPositions(unit, Integer.numberOfTrailingZeros(bits) + 1);
+            }
+            if(Integer.bitCount(union) == n){
+                for(int positions = union; positions != 0; positions &= positions - 1){
+                    didChange |= eliminate(Units.UNITS[unit][Integer.numberOfTrailingZeros(positions)], ~set);
+                }
+            }
+        }
+        return didChange;
     }
 
     /**
@@ -317,37 +870,36 @@ public class Solver {
      * @return true iff a change was made
      */
     public boolean pointingCandidates(int row, int column, Queue<Integer> changedCoords){
-        List<Cell> unsolvedInBox = keepCandRange(grid.getBoxCells(row, column), 2, 9);
-        Map<Integer, Integer> frequency = grid.getBoxCands(row, column);
+        pointingCandidatesInBox(Units.CELL_UNITS[row * 9 + column][2], Cell.ALL_CANDS);
+        return commit(changedCoords);
+    }
+
+    /**
+     * If in a box, all candidates of a certain digit are confined in a row or column,
+     * that digit cannot appear outside of that box in that row or column
+     * @param box the box unit to be looked at, see Units
+     * @param cands the candidates to be checked, bit (value - 1) for each candidate
+     * @return true iff an elimination was found
+     */
+    private boolean pointingCandidatesInBox(int box, int cands){
         boolean didChange = false;
-        for(int cand = 1; cand <= 9; cand++){
+        for(int bits = cands; bits != 0; bits &= bits - 1){
+            int cand = Integer.numberOfTrailingZeros(bits) + 1;
+            int positions = grid.getCandPositions(box, cand);
             //only look at cands that appear 2 or three times in the box
-            if(frequency.get(cand) == 2 || frequency.get(cand) == 3){
-                Set<Integer> rowSet = new HashSet<>(9);
-                Set<Integer> columnSet = new HashSet<>(9);
-                for(Cell cell: unsolvedInBox){
-                    if(cell.contains(cand)){
-                        rowSet.add(cell.getRow());
-                        columnSet.add(cell.getColumn());
-                    }
-                }
+            int count = Integer.bitCount(positions);
+            if(count == 2 || count == 3){
+                int first = Units.UNITS[box][Integer.numberOfTrailingZeros(positions)];
+                //box positions 0-2 are the first row of the box, 0, 3 and 6 the first column
+                int boxRow = (Integer.numberOfTrailingZeros(positions) / 3) * 3;
+                int boxColumn = Integer.numberOfTrailingZeros(positions) % 3;
                 //if found a pointing set in the row
-                if(rowSet.size() == 1){
-                    int r = rowSet.iterator().next();
-                    for(int c = 0; c < 9; c++){
-                        if(!columnSet.contains(c)){
-                            didChange |= removeAndCallNaked(r, c, cand, changedCoords);
-                        }
-                    }
+                if((positions & ~(0b111 << boxRow)) == 0){
+                    didChange |= removeOutsideUnit(Units.UNITS[Units.CELL_UNITS[first][0]], box, 2, cand);
                 }
                 //if found a pointing set in the column
-                if(columnSet.size() == 1){
-                    int c = columnSet.iterator().next();
-                    for(int r = 0; r < 9; r++){
-                        if(!rowSet.contains(r)){
-                            didChange |= removeAndCallNaked(r, c, cand, changedCoords);
-                        }
-                    }
+                if((positions & ~(0b1001001 << boxColumn)) == 0){
+                    didChange |= removeOutsideUnit(Units.UNITS[Units.CELL_UNITS[first][1]], box, 2, cand);
                 }
             }
         }
@@ -355,52 +907,61 @@ public class Solver {
     }
 
     /**
-     * If in a column or row, all candidates of a certain digit are confined in a single
-     * box, that digit cannot appear outside of that row or column in that box
-     * @param row the row of the local box to be looked at
-     * @param column the column of the local box to be looked at
+     * Removes cand from every cell at coords that is not in the given unit
+     * @param coords the coords of the cells to be removed from
+     * @param unit the unit whose cells are kept, see Units
+     * @param unitType the index of the unit type in Units.CELL_UNITS: 0 row, 1 column, 2 box
+     * @param cand the candidate to be removed
+     * @return true iff an elimination was found
+     */
+    private boolean removeOutsideUnit(int[] coords, int unit, int unitType, int cand){
+        boolean didChange = false;
+        for(int coord: coords){
+            if(Units.CELL_UNITS[coord][unitType] != unit){
+                didChange |= eliminate(coord, Cell.bit(cand));
+            }
+        }
+        return didChange;
+    }
+
+    /**
+     * If in a column or row, all candidates of a certain digit are confined in a single
+     * box, that digit cannot appear outside of that row or column in that box
+     * @param row the row of the local box to be looked at
+     * @param column the column of the local box to be looked at
      * @param changedCoords a queue of coords. All changed cells will have their coords
      *        added to changedCoords
      * @return true iff a change was made
      */
     public boolean claimingCandidates(int row, int column, Queue<Integer> changedCoords){
-        return
-                claimingCandidates(grid.getRowCells(row), grid.getRowCands(row), changedCoords) |
-                claimingCandidates(grid.getColumnCells(column), grid.getColumnCands(column), changedCoords);
+        int[] units = Units.CELL_UNITS[row * 9 + column];
+        claimingCandidatesInUnit(units[0], 0, Cell.ALL_CANDS);
+        claimingCandidatesInUnit(units[1], 1, Cell.ALL_CANDS);
+        return commit(changedCoords);
     }
 
     /**
      * If in a column or row, all candidates of a certain digit are confined in a single
      * box, that digit cannot appear outside of that row or column in that box.
-     * @param cells list of cells of a column or row to be looked at
-     * @param frequency map of candidate values to their frequency in that row or column
-     * @param changedCoords a queue of coords. All changed cells will have their coords
-     *        added to changedCoords
-     * @return true iff a change was made
+     * @param unit the row or column unit to be looked at, see Units
+     * @param unitType the index of the unit type in Units.CELL_UNITS: 0 row, 1 column
+     * @param cands the candidates to be checked, bit (value - 1) for each candidate
+     * @return true iff an elimination was found
      */
-    private boolean claimingCandidates(List<Cell> cells, Map<Integer, Integer> frequency, Queue<Integer> changedCoords){
-        List<Cell> unsolved = keepCandRange(cells, 2, 9);
+    private boolean claimingCandidatesInUnit(int unit, int unitType, int cands){
         boolean didChange = false;
 
-        for(int cand = 1; cand <= 9; cand++){
+        for(int bits = cands; bits != 0; bits &= bits - 1){
+            int cand = Integer.numberOfTrailingZeros(bits) + 1;
+            int positions = grid.getCandPositions(unit, cand);
             //only look at cands that appear 2 or three times in the group
-            if(frequency.get(cand) == 2 || frequency.get(cand) == 3){
-                Set<Integer> boxCoords = new HashSet<>(9);
-                List<Cell> contains = new ArrayList<>();
-                for(Cell cell: unsolved){
-                    if(cell.contains(cand)){
-                        contains.add(cell);
-                        boxCoords.add(cell.getColumn() / 3 + 3 * (cell.getRow() / 3));
-                    }
-                }
-                //if found a pointing set in the set
-                if(boxCoords.size() == 1){
-                    Cell contained = contains.get(0);
-                    for(Cell cell: grid.getBoxCells(contained.getRow(), contained.getColumn())){
-                        if(!contains.contains(cell)){
-                            didChange |= removeAndCallNaked(cell, cand, changedCoords);
-                        }
-                    }
+            int count = Integer.bitCount(positions);
+            if(count == 2 || count == 3){
+                //positions 0-2, 3-5 and 6-8 of a row or column are each in one box
+                int firstPosition = Integer.numberOfTrailingZeros(positions);
+                if((positions & ~(0b111 << (firstPosition / 3) * 3)) == 0){
+                    int box = Units.CELL_UNITS[Units.UNITS[unit][firstPosition]][2];
+                    didChange |= removeOutsideUnit(Units.UNITS[box], unit, unitType, cand);
                 }
             }
         }
@@ -418,51 +979,91 @@ public class Solver {
      * @return true iff a change was made
      */
     public boolean xWing(int row, int column, Queue<Integer> changedCoords){
-        boolean didChange = xWingRows(grid, row, changedCoords);
-        //rotate 90 and do x wings to rotated grid, then merge
-        Grid clockwise = Permuter.rotateClockwise(grid);
-        Solver clockwiseSolver = new Solver(clockwise);
-        didChange |= clockwiseSolver.xWingRows(clockwise, column, new QueueSet<Integer>());
-        mergeGrid(Permuter.rotateCounterClockwise(clockwise), changedCoords);
+        return fish(row, column, 2, false, changedCoords);
+    }
+
+    /**
+     * Checks for x wings, swordfish and jellyfish, and their finned variants,
+     * with the given row as a base row or the given column as a base column
+     * @param row one base row to be looked at
+     * @param column one base column to be looked at
+     * @param changedCoords a queue of coords. All changed cells will have their coords
+     *        added to changedCoords
+     * @return true iff a change was made
+     */
+    public boolean basicFish(int row, int column, Queue<Integer> changedCoords){
+        boolean didChange = false;
+        for(int size = 2; size <= 4; size++){
+            didChange |= fish(row, column, size, true, changedCoords);
+        }
         return didChange;
     }
 
     /**
-     * Performs x wings with row bases.
-     * @param grid the grid for x wing to be performed on
+     * Checks for fish of the given size with the given row as a base row or the given column
+     * as a base column. If in n base rows, all candidates of a digit are in n cover columns,
+     * the digit can be removed from the rest of the cover columns. Also true for switched rows
+     * and columns. If finned, the base rows may also have fin cells outside the cover columns
+     * as long as the fins share a box, and the digit is only removed from cover cells in that box.
      * @param row one base row to be looked at
+     * @param column one base column to be looked at
+     * @param size the number of base rows or columns, 2 for x wing, 3 for swordfish, 4 for jellyfish
+     * @param finned whether finned fish are checked for as well as basic fish
      * @param changedCoords a queue of coords. All changed cells will have their coords
      *        added to changedCoords
      * @return true iff a change was made
      */
-    private boolean xWingRows(Grid grid, int row, Queue<Integer> changedCoords){
+    public boolean fish(int row, int column, int size, boolean finned, Queue<Integer> changedCoords){
+        for(int cand = 1; cand <= 9; cand++){
+            fish(Units.ROW_UNIT, row, cand, size, finned);
+            fish(Units.COLUMN_UNIT, column, cand, size, finned);
+        }
+        return commit(changedCoords);
+    }
+
+    /**
+     * Checks for fish of one digit with the given base line. Works only on the position masks
+     * of the grid, rows and columns are handled alike, so no grid is copied
+     * @param baseType Units.ROW_UNIT for base rows and cover columns,
+     *                 Units.COLUMN_UNIT for base columns and cover rows
+     * @param line the base row or column that must be part of the fish
+     * @param cand the digit of the fish
+     * @param size the number of base lines
+     * @param finned whether finned fish are checked for as well as basic fish
+     * @return true iff an elimination was found
+     */
+    private boolean fish(int baseType, int line, int cand, int size, boolean finned){
+        int maxCount = finned ? size + 2 : size;
+        //the lines with the digit in at most maxCount cells could be base lines
+        int lines = 0;
+        for(int l = 0; l < 9; l++){
+            int count = grid.getCandCount(baseType + l, cand);
+            if(count >= 1 && count <= maxCount){
+                lines |= 1 << l;
+            }
+        }
+        if((lines & (1 << line)) == 0){
+            return false;
+        }
         boolean didChange = false;
-        Map<Integer, Integer> frequency = grid.getRowCands(row);
-        for(int cand: frequency.keySet()){
-            if(frequency.get(cand) == 2){
-                //Rows will contain the two rows with the candidate
-                List<Integer> columns = new ArrayList<>();
-                for(Cell cell: grid.getRowCells(row)){
-                    if(cell.contains(cand)){
-                        columns.add(cell.getColumn());
-                    }
-                }
-                for(int r = 0; r < 9; r++){
-                    if(r == row){
-                        continue;
-                    }
-                    Map<Integer, Integer> frequencyTwo = grid.getRowCands(r);
-                    //If found an xwing
-                    if(frequencyTwo.get(cand) == 2
-                            && grid.getCands(r, columns.get(0)).contains(cand)
-                            && grid.getCands(r, columns.get(1)).contains(cand)){
-                        //remove from the two column in all other rows
-                        for(int r2 = 0; r2 < 9; r2++){
-                            if(r2 == r || r2 == row){
-                                continue;
-                            }
-                            didChange |= removeAndCallNaked(r2, columns.get(0), cand, changedCoords);
-                            didChange |= removeAndCallNaked(r2, columns.get(1), cand, changedCoords);
+        for(int baseLines: Units.SUBSETS[size]){
+            if((baseLines & ~lines) != 0 || (baseLines & (1 << line)) == 0){
+                continue;
+            }
+            //positions in a line are the indexes of the crossing lines, and every base line has some
+            int union = 0;
+            for(int bits = baseLines; bits != 0; bits &= bits - 1){
+                union |= grid.getCandPositions(baseType + Integer.numberOfTrailingZeros(bits), cand);
+            }
+            int unionSize = Integer.bitCount(union);
+            if(unionSize == size){
+                didChange |= removeFromCoverLines(baseType, baseLines, union, -1, cand);
+            } else if(finned && unionSize > size){
+                for(int cover: Units.SUBSETS[size]){
+                    if((cover & ~union) == 0){
+                        int finBox = finBox(baseType, baseLines, cover, cand);
+                        if(finBox != -1){
+                            didChange |= removeFromCoverLines(baseType, baseLines, cover, finBox, cand);
                         }
                     }
                 }
@@ -471,136 +1072,716 @@ public class Solver {
         return didChange;
     }
 
+    /**
+     * Returns the box containing every fin of a fish, where fins are the cells of the
+     * base lines with the digit that are outside of the cover lines
+     * @param baseType Units.ROW_UNIT or Units.COLUMN_UNIT, the type of the base lines
+     * @param baseLines the mask of base lines
+     * @param cover the mask of cover lines
+     * @param cand the digit of the fish
+     * @return the box unit of the fins, or -1 if the fins are in more than one box
+     */
+    private int finBox(int baseType, int baseLines, int cover, int cand){
+        int finBox = -1;
+        for(int bits = baseLines; bits != 0; bits &= bits - 1){
+            int baseUnit = baseType + Integer.numberOfTrailingZeros(bits);
+            for(int fins = grid.getCandPositions(baseUnit, cand) & ~cover; fins != 0; fins &= fins - 1){
+                int box = Units.CELL_UNITS[Units.UNITS[baseUnit][Integer.numberOfTrailingZeros(fins)]][2];
+                if(finBox != -1 && finBox != box){
+                    return -1;
+                }
+                finBox = box;
+            }
+        }
+        return finBox;
+    }
+
+    /**
+     * Removes the digit of a fish from the cells of the cover lines that are not in the base lines
+     * @param baseType Units.ROW_UNIT or Units.COLUMN_UNIT, the type of the base lines
+     * @param baseLines the mask of base lines
+     * @param cover the mask of cover lines
+     * @param box if not -1, only cells in this box unit are removed from
+     * @param cand the digit of the fish
+     * @return true iff an elimination was found
+     */
+    private boolean removeFromCoverLines(int baseType, int baseLines, int cover, int box, int cand){
+        int coverType = baseType == Units.ROW_UNIT ? Units.COLUMN_UNIT : Units.ROW_UNIT;
+        boolean didChange = false;
+        for(int bits = cover; bits != 0; bits &= bits - 1){
+            int coverUnit = coverType + Integer.numberOfTrailingZeros(bits);
+            //positions in a cover line are the indexes of the base lines
+            for(int others = grid.getCandPositions(coverUnit, cand) & ~baseLines; others != 0; others &= others - 1){
+                int coord = Units.UNITS[coverUnit][Integer.numberOfTrailingZeros(others)];
+                if(box == -1 || Units.CELL_UNITS[coord][2] == box){
+                    didChange |= eliminate(coord, Cell.bit(cand));
+                }
+            }
+        }
+        return didChange;
+    }
+
     /**
      * Takes the grid from, and keeps only the intersection of candidates in each cell of this.grid
      * and the Grid from.
      * @param from the grid to be merged with this.grid
+     * @return true iff an elimination was found
+     */
+    private boolean mergeGrid(Grid from){
+        boolean didChange = false;
+        for(int coord = 0; coord < 81; coord++){
+            didChange |= eliminate(coord, ~from.getCandMask(coord));
+        }
+        return didChange;
+    }
+
+    /**
+     * Checks for an xy wing with any of the seen cells of this row and column as a pivot
+     * @param row one primary row to be looked at
+     * @param column one primary column to be looked at
      * @param changedCoords a queue of coords. All changed cells will have their coords
      *        added to changedCoords
      * @return true iff a change was made
      */
-    private boolean mergeGrid(Grid from, Queue<Integer> changedCoords){
-        boolean didChange = false;
-        for(int r = 0; r < 9; r++){
-            for(int c = 0; c < 9; c++){
-                Set<Integer> gridCands = grid.getCands(r, c);
-                Set<Integer> fromCands = from.getCands(r, c);
-                if(fromCands.size() < gridCands.size()){
-                    for(int cand: gridCands){
-                        if(!fromCands.contains(cand)){
-                            didChange |= removeAndCallNaked(r, c, cand, changedCoords);
+    public boolean xYWing(int row, int column, Queue<Integer> changedCoords){
+        for(int coord: Units.SEEN[row * 9 + column]){
+            xYWingOneCell(coord);
+        }
+        return commit(changedCoords);
+    }
+
+    /**
+     * Checks for an xy wing with the given cell as the pivot
+     * @param pivot the coord of the pivot cell
+     * @return true iff an elimination was found
+     */
+    private boolean xYWingOneCell(int pivot){
+        int pivotMask = grid.getCandMask(pivot);
+        if(Integer.bitCount(pivotMask) != 2){
+            return false;
+        }
+        for(int wordOne = 0; wordOne < 2; wordOne++){
+            for(long pincers = Units.PEER_MASKS[pivot][wordOne] & grid.getBivalues(wordOne); pincers != 0; pincers &= pincers - 1){
+                int pincOne = wordOne * 64 + Long.numberOfTrailingZeros(pincers);
+                int maskOne = grid.getCandMask(pincOne);
+                if(Integer.bitCount(maskOne & pivotMask) != 1){
+                    continue;
+                }
+                int cand = maskOne & ~pivotMask;
+                //the other pincer has the other candidate of the pivot and the same cand
+                int maskTwo = (pivotMask & ~maskOne) | cand;
+                for(int wordTwo = 0; wordTwo < 2; wordTwo++){
+                    for(long others = Units.PEER_MASKS[pivot][wordTwo] & grid.getBivalues(wordTwo); others != 0; others &= others - 1){
+                        int pincTwo = wordTwo * 64 + Long.numberOfTrailingZeros(others);
+                        if(pincTwo > pincOne && grid.getCandMask(pincTwo) == maskTwo){
+                            long[] common = Units.COMMON_PEERS[pincOne * 81 + pincTwo];
+                            if(eliminate(common[0], common[1], cand)){
+                                return true;
+                            }
                         }
                     }
                 }
             }
         }
-        return didChange;
+        return false;
     }
 
     /**
-     * Checks for an xy wing with any of the seen cells of this row and column as a pivot
+     * Checks for an xyz wing with any cell seen by this row and column as the pivot.
+     * The pivot has three candidates xyz, and sees a pincer with candidates xz and a pincer with
+     * candidates yz. Then z is removed from every cell that sees the pivot and both pincers
      * @param row one primary row to be looked at
      * @param column one primary column to be looked at
      * @param changedCoords a queue of coords. All changed cells will have their coords
      *        added to changedCoords
      * @return true iff a change was made
      */
-    public boolean xYWing(int row, int column, Queue<Integer> changedCoords){
-        boolean didChange = false;
-        for(Cell cell: grid.getSeenCells(row, column)){
-            didChange |= xYWingOneCell(cell.getRow(), cell.getColumn(), changedCoords);
-            checkRep();
+    public boolean xYZWing(int row, int column, Queue<Integer> changedCoords){
+        for(int coord: Units.SEEN[row * 9 + column]){
+            xYZWingOneCell(coord);
         }
-        return didChange;
+        return commit(changedCoords);
     }
 
     /**
-     * Checks for an xy wing with this row and column as the pivot
+     * Checks for an xyz wing with the given cell as the pivot
+     * @param pivot the coord of the pivot cell
+     * @return true iff an elimination was found
+     */
+    private boolean xYZWingOneCell(int pivot){
+        int pivotMask = grid.getCandMask(pivot);
+        if(Integer.bitCount(pivotMask) != 3){
+            return false;
+        }
+        for(int wordOne = 0; wordOne < 2; wordOne++){
+            for(long pincers = Units.PEER_MASKS[pivot][wordOne] & grid.getBivalues(wordOne); pincers != 0; pincers &= pincers - 1){
+                int pincOne = wordOne * 64 + Long.numberOfTrailingZeros(pincers);
+                int maskOne = grid.getCandMask(pincOne);
+                if((maskOne & ~pivotMask) != 0){
+                    continue;
+                }
+                for(int wordTwo = 0; wordTwo < 2; wordTwo++){
+                    for(long others = Units.PEER_MASKS[pivot][wordTwo] & grid.getBivalues(wordTwo); others != 0; others &= others - 1){
+                        int pincTwo = wordTwo * 64 + Long.numberOfTrailingZeros(others);
+                        int maskTwo = grid.getCandMask(pincTwo);
+                        if(pincTwo > pincOne && (maskTwo & ~pivotMask) == 0 && maskTwo != maskOne){
+                            int cand = maskOne & maskTwo;
+                            long[] common = Units.COMMON_PEERS[pincOne * 81 + pincTwo];
+                            long[] seen = Units.PEER_MASKS[pivot];
+                            if(eliminate(common[0] & seen[0], common[1] & seen[1], cand)){
+                                return true;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks for a w wing with any cell seen by this row and column as one of its ends.
+     * Two cells that do not see each other both have only the candidates xy, and x appears
+     * in only two cells of a container, one seeing each of the ends. One of the ends must be y,
+     * so y is removed from every cell that sees both ends
      * @param row one primary row to be looked at
      * @param column one primary column to be looked at
      * @param changedCoords a queue of coords. All changed cells will have their coords
      *        added to changedCoords
      * @return true iff a change was made
      */
-    private boolean xYWingOneCell(int row, int column, Queue<Integer> changedCoords){
-        boolean didChange = false;
-        if(grid.getCands(row, column).size() == 2){
-            Iterator<Integer> candItr = grid.getCands(row, column).iterator();
-            int candOne = candItr.next();
-            int candTwo = candItr.next();
-            List<Cell> seen = grid.getSeenCells(row, column);
-            List<Cell> possiblePincer = keepCandRange(seen, 2, 2);
-            possiblePincer.removeIf(next -> !next.contains(candOne) && !next.contains(candTwo)
-                    || next.contains(candOne) && next.contains(candTwo));
-            Map<Integer, Integer> pincerFrequency = grid.getCandsMapping(possiblePincer);
-            for(int cand = 1; cand <= 9; cand++){
-                //don't check for a cand already in pivot cell
-                if(cand == candOne || cand == candTwo){
+    public boolean wWing(int row, int column, Queue<Integer> changedCoords){
+        for(int coord: Units.SEEN[row * 9 + column]){
+            wWingOneCell(coord);
+        }
+        return commit(changedCoords);
+    }
+
+    /**
+     * Checks for a w wing with the given cell as one of its ends
+     * @param end the coord of the end cell
+     * @return true iff an elimination was found
+     */
+    private boolean wWingOneCell(int end){
+        if(!grid.isBivalue(end)){
+            return false;
+        }
+        int mask = grid.getCandMask(end);
+        for(int word = 0; word < 2; word++){
+            //ends that see each other are a naked pair
+            for(long others = grid.getBivalues(word) & ~Units.PEER_MASKS[end][word]; others != 0; others &= others - 1){
+                int other = word * 64 + Long.numberOfTrailingZeros(others);
+                if(other == end || grid.getCandMask(other) != mask){
                     continue;
                 }
-                if(pincerFrequency.get(cand) == 2){
-                    //found xywing
-                    //find pincer cells
-                    List<Cell> pincers = new ArrayList<>();
-                    for(Cell cell: possiblePincer){
-                        if(cell.contains(cand)){
-                            pincers.add(cell);
+                for(int bits = mask; bits != 0; bits &= bits - 1){
+                    int linked = Integer.numberOfTrailingZeros(bits) + 1;
+                    if(hasStrongLinkBetween(end, other, linked)){
+                        long[] common = Units.COMMON_PEERS[end * 81 + other];
+                        if(eliminate(common[0], common[1], mask & ~Cell.bit(linked))){
+                            return true;
                         }
                     }
-                    Cell pincOne = pincers.get(0);
-                    Cell pincTwo = pincers.get(1);
-                    //if pincers don't have one each of candOne and candTwo - this is not xy wing
-                    if(pincOne.contains(candOne) && pincTwo.contains(candOne) ||
-                            pincOne.contains(candTwo) && pincTwo.contains(candTwo)){
-                        continue;
-                    }
-                    //if found an x wing, find the intersection of their seen sets
-                    List<Cell> setOne = grid.getSeenCells(pincers.get(0).getRow(), pincers.get(0).getColumn());
-                    List<Cell> setTwo = grid.getSeenCells(pincers.get(1).getRow(), pincers.get(1).getColumn());
-                    Collection<Cell> intersection = new ArrayList<>();
-                    for(Cell cell: setTwo){
-                        if(setOne.contains(cell)){
-                            intersection.add(cell);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether some container has exactly two cells with cand, one seeing each of the given cells
+     * @param coordOne the coord of one cell
+     * @param coordTwo the coord of the other cell
+     * @param cand the candidate of the link
+     * @return true iff there is such a strong link on cand
+     */
+    private boolean hasStrongLinkBetween(int coordOne, int coordTwo, int cand){
+        for(int units = grid.getStrongLinkUnits(cand); units != 0; units &= units - 1){
+            int unit = Integer.numberOfTrailingZeros(units);
+            int positions = grid.getCandPositions(unit, cand);
+            int linkOne = Units.UNITS[unit][Integer.numberOfTrailingZeros(positions)];
+            int linkTwo = Units.UNITS[unit][31 - Integer.numberOfLeadingZeros(positions)];
+            if(Units.isPeer(linkOne, coordOne) && Units.isPeer(linkTwo, coordTwo)
+                    || Units.isPeer(linkOne, coordTwo) && Units.isPeer(linkTwo, coordOne)){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks for x chains starting at a local cell. For each candidate x of the cell, a chain of
+     * up to length links on x alternates between strong links and weak links, starting with
+     * a strong link from the cell. Either the cell or the cell at the end of the chain is x,
+     * so x is removed from every cell that sees both
+     * @param row the local row to be checked
+     * @param column the local column to be checked
+     * @param length the maximum number of links in a chain
+     * @param changedCoords a queue of coords. All changed cells will have their coords
+     *        added to changedCoords
+     * @return true if a change was made
+     */
+    public boolean xChain(int row, int column, int length, Queue<Integer> changedCoords){
+        int coord = row * 9 + column;
+        if(grid.isSolved(coord)){
+            return false;
+        }
+        boolean didChange = false;
+        for(int bits = grid.getCandMask(coord); bits != 0; bits &= bits - 1){
+            int cand = Integer.numberOfTrailingZeros(bits) + 1;
+            int start = literal(coord, cand, false);
+            if(!followImplications(start, cand, length, implied[0])){
+                //the cell not being cand is a contradiction
+                didChange |= applyLiteral(start ^ 1);
+                continue;
+            }
+            for(int word = 0; word < LITERAL_WORDS; word++){
+                for(long reached = implied[0][word] & TRUE_LITERALS; reached != 0; reached &= reached - 1){
+                    int end = (word * 64 + Long.numberOfTrailingZeros(reached)) >>> 1;
+                    long[] common = Units.COMMON_PEERS[coord * 81 + end / 9];
+                    didChange |= eliminate(common[0], common[1], Cell.bit(cand));
+                }
+            }
+        }
+        commit(changedCoords);
+        return didChange;
+    }
+
+    /**
+     * Checks for a remote pair starting at a local cell. A chain of up to length cells with the
+     * same two candidates, each seeing the next, alternates between the two candidates.
+     * Two cells an odd number of links apart hold both candidates between them, so both
+     * candidates are removed from every cell that sees both of them
+     * @param row the local row to be checked
+     * @param column the local column to be checked
+     * @param length the maximum number of links in a chain
+     * @param changedCoords a queue of coords. All changed cells will have their coords
+     *        added to changedCoords
+     * @return true if a change was made
+     */
+    public boolean remotePair(int row, int column, int length, Queue<Integer> changedCoords){
+        int start = row * 9 + column;
+        if(!grid.isBivalue(start)){
+            return false;
+        }
+        int mask = grid.getCandMask(start);
+        long visitedZero = 0;
+        long visitedOne = 0;
+        if(start < 64){
+            visitedZero |= 1L << start;
+        } else {
+            visitedOne |= 1L << start;
+        }
+        chainQueue[0] = start;
+        chainDepth[0] = 0;
+        chainTail = 1;
+        for(int head = 0; head < chainTail && chainDepth[head] < length; head++){
+            int coord = chainQueue[head];
+            long[] peers = Units.PEER_MASKS[coord];
+            long nextZero = peers[0] & grid.getBivalues(0) & ~visitedZero;
+            long nextOne = peers[1] & grid.getBivalues(1) & ~visitedOne;
+            for(int word = 0; word < 2; word++){
+                for(long bits = word == 0 ? nextZero : nextOne; bits != 0; bits &= bits - 1){
+                    int next = word * 64 + Long.numberOfTrailingZeros(bits);
+                    if(grid.getCandMask(next) == mask){
+                        if(word == 0){
+                            visitedZero |= 1L << next;
+                        } else {
+                            visitedOne |= 1L << next;
                         }
-                    }
-                    intersection.removeAll(pincers);
-                    for(Cell cell: intersection){
-                        didChange |= removeAndCallNaked(cell, cand, changedCoords);
-                    }
-                    if(didChange){
-                        //prevent from checking for multiple x wings with non updated frequency counts
-                        //x wings will be called again because this row and column will have been added
-                        //to changedCoords again
-                        return true;
+                        chainQueue[chainTail] = next;
+                        chainDepth[chainTail++] = chainDepth[head] + 1;
                     }
                 }
             }
         }
+        boolean didChange = false;
+        int numReached = chainTail;
+        for(int i = 1; i < numReached; i++){
+            //an odd number of links apart, but not a naked pair
+            if(chainDepth[i] % 2 == 1 && chainDepth[i] >= 3){
+                long[] common = Units.COMMON_PEERS[start * 81 + chainQueue[i]];
+                for(int bits = mask; bits != 0; bits &= bits - 1){
+                    didChange |= eliminate(common[0], common[1], Integer.lowestOneBit(bits));
+                }
+            }
+        }
+        commit(changedCoords);
         return didChange;
     }
 
-    public boolean basicFish(int row, int column, Queue<Integer> changedCoords){
-        return false;
+    /**
+     * Checks for alternating inference chains starting at a local cell. For each candidate x of
+     * the cell, a chain of up to length links alternates between strong links and weak links
+     * over any candidates, starting with a strong link from x in the cell. Either the cell is x
+     * or the candidate y at the end of the chain is in its cell. If y is x, x is removed from
+     * every cell that sees both ends. Otherwise if the ends see each other, y is removed from the
+     * cell and x from the end, and if the end is the cell itself, all other candidates are removed
+     * @param row the local row to be checked
+     * @param column the local column to be checked
+     * @param length the maximum number of links in a chain
+     * @param changedCoords a queue of coords. All changed cells will have their coords
+     *        added to changedCoords
+     * @return true if a change was made
+     */
+    public boolean alternatingInferenceChain(int row, int column, int length, Queue<Integer> changedCoords){
+        int coord = row * 9 + column;
+        if(grid.isSolved(coord)){
+            return false;
+        }
+        boolean didChange = false;
+        for(int bits = grid.getCandMask(coord); bits != 0; bits &= bits - 1){
+            int cand = Integer.numberOfTrailingZeros(bits) + 1;
+            int start = literal(coord, cand, false);
+            if(!followImplications(start, 0, length, implied[0])){
+                //the cell not being cand is a contradiction
+                didChange |= applyLiteral(start ^ 1);
+                continue;
+            }
+            for(int word = 0; word < LITERAL_WORDS; word++){
+                for(long reached = implied[0][word] & TRUE_LITERALS; reached != 0; reached &= reached - 1){
+                    int node = (word * 64 + Long.numberOfTrailingZeros(reached)) >>> 1;
+                    int end = node / 9;
+                    int endCand = node % 9 + 1;
+                    if(endCand == cand){
+                        long[] common = Units.COMMON_PEERS[coord * 81 + end];
+                        didChange |= eliminate(common[0], common[1], Cell.bit(cand));
+                    } else if(end == coord){
+                        didChange |= eliminate(coord, ~(Cell.bit(cand) | Cell.bit(endCand)));
+                    } else if(Units.isPeer(coord, end)){
+                        didChange |= applyLiteral(literal(coord, endCand, false));
+                        didChange |= applyLiteral(literal(end, cand, false));
+                    }
+                }
+            }
+        }
+        commit(changedCoords);
+        return didChange;
     }
 
+    /**
+     * Checks for forcing chains starting at a local cell. One of the candidates of the cell must
+     * be true, and for each candidate of the cell one of its positions in each local container
+     * must be true. Each of these assumptions is followed through the implication graph of
+     * the grid for up to length links:
+     * a candidate being true makes the other candidates of its cell and the same candidate in
+     * every cell it sees false (weak links), and a candidate being false makes the other
+     * candidate true if its cell has two candidates or its container has two cells with that
+     * candidate (strong links).
+     * An assumption that implies both a candidate and its negation is false. Anything implied
+     * by all of the other assumptions of the same set is true.
+     * The graph is read from the candidates of the grid on every call, so it always reflects
+     * every elimination made so far
+     * @param row the local row to be checked
+     * @param column the local column to be checked
+     * @param length the maximum number of links followed from an assumption
+     * @param changedCoords a queue of coords. All changed cells will have their coords
+     *        added to changedCoords
+     * @return true if a change was made
+     */
     public boolean forcingChains(int row, int column, int length, Queue<Integer> changedCoords){
-        return false;
+        int coord = row * 9 + column;
+        if(grid.isSolved(coord)){
+            return false;
+        }
+        int mask = grid.getCandMask(coord);
+        int numAssumptions = 0;
+        for(int bits = mask; bits != 0; bits &= bits - 1){
+            assumptions[numAssumptions++] = literal(coord, Integer.numberOfTrailingZeros(bits) + 1, true);
+        }
+        forcingChains(numAssumptions, length);
+        for(int unit: Units.CELL_UNITS[coord]){
+            for(int bits = mask; bits != 0; bits &= bits - 1){
+                int value = Integer.numberOfTrailingZeros(bits) + 1;
+                numAssumptions = 0;
+                for(int positions = grid.getCandPositions(unit, value); positions != 0; positions &= positions - 1){
+                    assumptions[numAssumptions++] =
+                            literal(Units.UNITS[unit][Integer.numberOfTrailingZeros(positions)], value, true);
+                }
+                if(numAssumptions >= 2){
+                    forcingChains(numAssumptions, length);
+                }
+            }
+        }
+        return commit(changedCoords);
+    }
+
+    /**
+     * Finds eliminations with forcing trials (Nishio) from the given cell. The values of the cell,
+     * and the positions of each of those values in the row, column and box of the cell, are each
+     * a set one of which must be true. Each set of at most TRIAL_BRANCHES values is tried by
+     * placing every value of it on its own snapshot of the grid and following naked and hidden
+     * singles. A branch that reaches a contradiction is false, and a candidate that is removed in
+     * every other branch is removed from the grid.
+     * Unlike forcingChains, which follows implications between candidates, a branch sees every
+     * single that the placement leads to. With a speculation pool the branches are tried at the
+     * same time, see setSpeculation
+     * @param row the local row to be checked
+     * @param column the local column to be checked
+     * @param depth the most hidden singles followed in each branch
+     * @param changedCoords a queue of coords. All changed cells will have their coords
+     *        added to changedCoords
+     * @return true if a change was made
+     */
+    public boolean forcingTrials(int row, int column, int depth, Queue<Integer> changedCoords){
+        int coord = row * 9 + column;
+        if(grid.isSolved(coord)){
+            return false;
+        }
+        int mask = grid.getCandMask(coord);
+        int numBranches = 0;
+        if(Integer.bitCount(mask) <= TRIAL_BRANCHES){
+            for(int bits = mask; bits != 0; bits &= bits - 1){
+                trialCoords[numBranches] = coord;
+                trialValues[numBranches++] = Integer.numberOfTrailingZeros(bits) + 1;
+            }
+            forcingTrials(numBranches, depth);
+        }
+        for(int unit: Units.CELL_UNITS[coord]){
+            for(int bits = mask; bits != 0; bits &= bits - 1){
+                int value = Integer.numberOfTrailingZeros(bits) + 1;
+                int positions = grid.getCandPositions(unit, value);
+                if(Integer.bitCount(positions) < 2 || Integer.bitCount(positions) > TRIAL_BRANCHES){
+                    continue;
+                }
+                numBranches = 0;
+                for(; positions != 0; positions &= positions - 1){
+                    trialCoords[numBranches] = Units.UNITS[unit][Integer.numberOfTrailingZeros(positions)];
+                    trialValues[numBranches++] = value;
+                }
+                forcingTrials(numBranches, depth);
+            }
+        }
+        return commit(changedCoords);
     }
 
     /**
-     * Removes all solved cells and cells with more than maxCands or less than minCands candidates
-     * from a list of cells, inclusive
-     * @param cells the list of cells for cells to be removed from
-     * @param minCands the minimum number of cands to remain in the list
-     * @param maxCands the maximum number of cands to remain in the list
+     * Tries the first numBranches placements of trialCoords and trialValues, one of which must be
+     * true, and eliminates every candidate that is left in none of the branches without a contradiction.
+     * The eliminations are left for commit
+     * @param numBranches the number of branches, at most TRIAL_BRANCHES
+     * @param depth the most hidden singles followed in each branch
      */
-    private List<Cell> keepCandRange(List<Cell> cells, int minCands, int maxCands){
-        List<Cell> kept = new ArrayList<>();
-        for(Cell cell: cells){
-            if(!cell.isSolved() && cell.size() <= maxCands && cell.size() >= minCands){
-                kept.add(cell);
+    private void forcingTrials(int numBranches, int depth){
+        for(int i = 0; i < numBranches; i++){
+            if(trialSolvers[i] == null){
+                Solver trial = new Solver(new Grid());
+                trial.setVerification(VerificationPolicy.OFF);
+                trialSolvers[i] = trial;
+                int branch = i;
+                trials.add(() -> trial.followTrial(trialCoords[branch], trialValues[branch], trialDepth));
+            }
+            trialSolvers[i].grid.copyFrom(grid);
+            trialSolvers[i].reset(trialSolvers[i].grid);
+        }
+        if(speculationPool == null){
+            for(int i = 0; i < numBranches; i++){
+                trialSolvers[i].followTrial(trialCoords[i], trialValues[i], depth);
+            }
+        } else {
+            trialDepth = depth;
+            trialBatch.clear();
+            for(int i = 0; i < numBranches; i++){
+                trialBatch.add(trials.get(i));
+            }
+            try {
+                invokeAll(trialBatch);
+            } catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        Arrays.fill(trialUnion, 0);
+        boolean survived = false;
+        for(int i = 0; i < numBranches; i++){
+            Grid branch = trialSolvers[i].grid;
+            if(!branch.hasContradiction()){
+                survived = true;
+                for(int coord = 0; coord < 81; coord++){
+                    trialUnion[coord] |= branch.getCandMask(coord);
+                }
             }
         }
-        return kept;
+        if(!survived){
+            contradiction("Every branch of the forcing trial on cell " + trialCoords[0] + " leads to a contradiction");
+            return;
+        }
+        for(int coord = 0; coord < 81; coord++){
+            eliminate(coord, ~trialUnion[coord]);
+        }
+    }
+
+    /**
+     * Places a value on this.grid, then follows naked singles and at most depth hidden singles
+     * until there are no more, the grid is solved or a contradiction is found
+     * @param coord the coord of the cell the value is placed in
+     * @param value the value to be placed
+     * @param depth the most hidden singles followed
+     * @return this.grid
+     */
+    private Grid followTrial(int coord, int value, int depth){
+        int index = Technique.HIDDEN_SINGLES.ordinal();
+        dirtyUnits[index] = ALL_UNITS;
+        Arrays.fill(dirtyDigits[index], Cell.ALL_CANDS);
+        changedCoords.clear();
+        eliminate(coord, Cell.ALL_CANDS & ~Cell.bit(value));
+        commit(changedCoords);
+        for(int step = 0; step < depth && !grid.isSolved() && !grid.hasContradiction(); step++){
+            changedCoords.clear();
+            if(!runDirty(Technique.HIDDEN_SINGLES, changedCoords)){
+                break;
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Follows each of the first numAssumptions literals of assumptions, one of which must be true,
+     * and applies what they imply. If every assumption implies a contradiction, the grid has no solution
+     * and is marked as contradicted
+     * @param numAssumptions the number of assumptions
+     * @param length the maximum number of links followed from an assumption
+     * @return true if an elimination was found
+     * @throws IllegalStateException in strict mode, if every assumption implies a contradiction
+     */
+    private boolean forcingChains(int numAssumptions, int length){
+        Arrays.fill(commonImplied, -1L);
+        int contradicted = 0; // bit i is set iff assumption i implies a contradiction
+        for(int i = 0; i < numAssumptions; i++){
+            if(followImplications(assumptions[i], 0, length, implied[i])){
+                for(int word = 0; word < LITERAL_WORDS; word++){
+                    commonImplied[word] &= implied[i][word];
+                }
+            } else {
+                contradicted |= 1 << i;
+            }
+        }
+        if(contradicted == (1 << numAssumptions) - 1){
+            contradiction("Every assumption of the forcing chain leads to a contradiction");
+            return false;
+        }
+        boolean didChange = false;
+        for(int bits = contradicted; bits != 0; bits &= bits - 1){
+            didChange |= applyLiteral(assumptions[Integer.numberOfTrailingZeros(bits)] ^ 1);
+        }
+        for(int word = 0; word < LITERAL_WORDS; word++){
+            for(long bits = commonImplied[word]; bits != 0; bits &= bits - 1){
+                didChange |= applyLiteral(word * 64 + Long.numberOfTrailingZeros(bits));
+            }
+        }
+        return didChange;
+    }
+
+    /**
+     * Finds the literals reached from start by following at most length links.
+     * Links alternate by nature: a true literal only implies false literals through weak links,
+     * and a false literal only implies true literals through strong links
+     * @param start the assumed literal
+     * @param value if not 0, only links between literals of this value are followed
+     * @param length the maximum number of links followed
+     * @param reached set to the literals reached, start included, as a bitset
+     * @return false iff start implies a contradiction
+     */
+    private boolean followImplications(int start, int value, int length, long[] reached){
+        Arrays.fill(reached, 0);
+        chainTail = 0;
+        if(!reach(start, 0, reached)){
+            return false;
+        }
+        for(int head = 0; head < chainTail; head++){
+            int literal = chainQueue[head];
+            int depth = chainDepth[head] + 1;
+            if(depth > length){
+                break;
+            }
+            int coord = (literal >>> 1) / 9;
+            int cand = (literal >>> 1) % 9 + 1;
+            int bit = Cell.bit(cand);
+            int mask = grid.getCandMask(coord);
+            if((literal & 1) != 0){
+                //weak links: the other candidates of the cell and this candidate in every peer are false
+                for(int bits = value == 0 ? mask & ~bit : 0; bits != 0; bits &= bits - 1){
+                    if(!reach(literal(coord, Integer.numberOfTrailingZeros(bits) + 1, false), depth, reached)){
+                        return false;
+                    }
+                }
+                for(int peer: Units.PEERS[coord]){
+                    if((grid.getCandMask(peer) & bit) != 0 && !reach(literal(peer, cand, false), depth, reached)){
+                        return false;
+                    }
+                }
+            } else if((mask & bit) != 0){
+                //strong links: the only other candidate of the cell or of a unit is true
+                if(value == 0 && grid.isBivalue(coord)
+                        && !reach(literal(coord, Integer.numberOfTrailingZeros(mask & ~bit) + 1, true), depth, reached)){
+                    return false;
+                }
+                int strongLinks = grid.getStrongLinkUnits(cand);
+                for(int i = 0; i < 3; i++){
+                    int unit = Units.CELL_UNITS[coord][i];
+                    if((strongLinks & (1 << unit)) != 0){
+                        int positions = grid.getCandPositions(unit, cand) & ~(1 << Units.UNIT_POSITIONS[coord][i]);
+                        if(!reach(literal(Units.UNITS[unit][Integer.numberOfTrailingZeros(positions)], cand, true), depth, reached)){
+                            return false;
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Marks a literal as reached and queues it to be followed, if it was not already reached
+     * @param literal the literal reached
+     * @param depth the number of links followed to reach literal
+     * @param reached the literals reached so far, as a bitset
+     * @return false iff literal contradicts a literal already reached or the candidates of the grid
+     */
+    private boolean reach(int literal, int depth, long[] reached){
+        if((reached[literal >>> 6] & (1L << literal)) != 0){
+            return true;
+        }
+        int negation = literal ^ 1;
+        if((reached[negation >>> 6] & (1L << negation)) != 0){
+            return false;
+        }
+        int coord = (literal >>> 1) / 9;
+        int bit = Cell.bit((literal >>> 1) % 9 + 1);
+        int mask = grid.getCandMask(coord);
+        if((literal & 1) != 0 ? (mask & bit) == 0 : mask == bit){
+            //a removed candidate is true, or the last candidate of a cell is false
+            return false;
+        }
+        reached[literal >>> 6] |= 1L << literal;
+        chainQueue[chainTail] = literal;
+        chainDepth[chainTail++] = depth;
+        return true;
+    }
+
+    /**
+     * Eliminates what disagrees with a literal known to be true
+     * @param literal the literal, see literal
+     * @return true if an elimination was found
+     */
+    private boolean applyLiteral(int literal){
+        int coord = (literal >>> 1) / 9;
+        int value = (literal >>> 1) % 9 + 1;
+        int mask = grid.getCandMask(coord);
+        if((literal & 1) != 0){
+            return (mask & Cell.bit(value)) != 0 && eliminate(coord, ~Cell.bit(value));
+        }
+        return mask != Cell.bit(value) && eliminate(coord, Cell.bit(value));
+    }
+
+    /**
+     * Returns the literal for whether a value is in a cell
+     * @param coord the coord of the cell
+     * @param value the value, 1-9
+     * @param isTrue true for the literal that value is in the cell, false for its negation
+     * @return the literal
+     */
+    private static int literal(int coord, int value, boolean isTrue){
+        return (coord * 9 + value - 1) * 2 + (isTrue ? 1 : 0);
     }
 }
@@ -9,7 +9,7 @@ public interface SolverFunction {
      * @param row the row for the solve to be applied to
      * @param column the column for the solve to be applied to
      * @param changedCoords a queue of coords. All changed cells will have their coords
-     *        added to changedCoords
+     *        added to changedCoords. Solver methods add to a CoordQueue without boxing
      * @return true if a change was made
      */
     abstract boolean solveMethod(int row, int column, Queue<Integer> changedCoords);
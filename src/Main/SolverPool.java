@@ -0,0 +1,55 @@
+package Main;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * A bounded pool of solvers, each with its own grid, for callers that solve puzzles one at a time
+ * from many threads. Acquiring reuses an idle solver when there is one, so a puzzle costs no
+ * allocations once the pool is warm, see Solver.reset. Acquiring never blocks: when every solver
+ * is in use a new one is made, and releasing keeps at most capacity idle solvers
+ */
+public class SolverPool {
+    private final ArrayBlockingQueue<Solver> idle;
+
+    /**
+     * Constructs an empty pool
+     * @param capacity the largest number of idle solvers kept, at least 1
+     */
+    public SolverPool(int capacity){
+        if(capacity < 1){
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        idle = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Returns a solver whose grid holds the given puzzle. The grid is solver.grid
+     * @param puzzle the puzzle to be solved, in the format of Grid(String)
+     * @return a solver ready to solve puzzle, to be given back with release once it is no longer used
+     */
+    public Solver acquire(String puzzle){
+        Solver solver = idle.poll();
+        if(solver == null){
+            return new Solver(new Grid(puzzle));
+        }
+        solver.grid.load(puzzle);
+        solver.reset(solver.grid);
+        return solver;
+    }
+
+    /**
+     * Gives a solver back to the pool. Neither the solver nor its grid may be used afterwards
+     * @param solver a solver returned by acquire
+     */
+    public void release(Solver solver){
+        idle.offer(solver);
+    }
+
+    /**
+     * Returns the number of idle solvers in the pool
+     * @return the number of solvers that acquire can reuse
+     */
+    public int getIdleCount(){
+        return idle.size();
+    }
+}
@@ -0,0 +1,136 @@
+package Main;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * The solving techniques run by Solver.solve, declared from cheapest to most expensive.
+ * Unit techniques are run on the units and digits that changed since they last ran,
+ * cell techniques on the cells that changed since they last ran. Global techniques find patterns
+ * whose ends can be far from the cells that changed, so they are run on every cell once anything changed.
+ * The order a solver uses can be set per deployment with the system property ORDER_PROPERTY,
+ * a comma separated list of technique names such as "HIDDEN_SINGLES,INTERSECTIONS,FISH",
+ * or with ORDER_FILE_PROPERTY, the path of a file holding such a list, see TechniqueStats.save.
+ * Techniques left out of the list are not run
+ */
+public enum Technique {
+    HIDDEN_SINGLES(true, false),
+    INTERSECTIONS(true, false),
+    NAKED_SUBSETS(true, false),
+    HIDDEN_SUBSETS(true, false),
+    FISH(true, false),
+    XY_WING(false, false),
+    XYZ_WING(false, false),
+    W_WING(false, true),
+    REMOTE_PAIR(false, true),
+    X_CHAIN(false, true),
+    ALTERNATING_INFERENCE_CHAIN(false, true),
+    FORCING_CHAINS(false, true),
+    FORCING_TRIALS(false, true);
+
+    public static final String ORDER_PROPERTY = "sudoku.techniques";
+    public static final String ORDER_FILE_PROPERTY = "sudoku.techniques.file";
+
+    // the order parsed from the properties, with the values it was parsed from, read again only if they change
+    private static volatile Configured configured;
+
+    private final boolean unitTechnique;
+    private final boolean global;
+
+    Technique(boolean unitTechnique, boolean global){
+        this.unitTechnique = unitTechnique;
+        this.global = global;
+    }
+
+    /**
+     * Returns whether this technique is scheduled by unit and digit rather than by cell
+     * @return true iff this is a unit technique
+     */
+    public boolean isUnitTechnique(){
+        return unitTechnique;
+    }
+
+    /**
+     * Returns whether this is a cell technique whose patterns can be completed by a change to a cell
+     * outside of them, such as a strong link forming in a unit between the ends of a chain.
+     * A global technique is run on every cell after any change, rather than only on the cells that changed
+     * @return true iff this is a global technique
+     */
+    public boolean isGlobal(){
+        return global;
+    }
+
+    /**
+     * Returns the techniques in the order set by the system property ORDER_PROPERTY, or else read
+     * from the file named by ORDER_FILE_PROPERTY, or else every technique from cheapest to most expensive.
+     * The order is parsed, and the file read, the first time this is called and again only if
+     * the properties are changed, so every new solver does not read the file
+     * @return a new list of techniques, each at most once
+     * @throws IllegalArgumentException if the property or file names a technique that does not exist
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    public static List<Technique> configuredOrder(){
+        String order = System.getProperty(ORDER_PROPERTY);
+        String file = System.getProperty(ORDER_FILE_PROPERTY);
+        Configured cached = configured;
+        if(cached == null || !Objects.equals(cached.order, order) || !Objects.equals(cached.file, file)){
+            cached = new Configured(order, file, readOrder(order, file));
+            configured = cached;
+        }
+        return new ArrayList<>(cached.techniques);
+    }
+
+    /**
+     * Reads the order set by the given values of ORDER_PROPERTY and ORDER_FILE_PROPERTY
+     * @param order the value of ORDER_PROPERTY, may be null
+     * @param file the value of ORDER_FILE_PROPERTY, may be null
+     * @return a new list of techniques, each at most once
+     */
+    private static List<Technique> readOrder(String order, String file){
+        if((order == null || order.isBlank()) && file != null && !file.isBlank()){
+            try {
+                return TechniqueStats.load(Paths.get(file));
+            } catch (IOException e){
+                throw new UncheckedIOException(e);
+            }
+        }
+        return parseOrder(order);
+    }
+
+    /**
+     * An order read by configuredOrder, with the property values it was read from
+     */
+    private static final class Configured {
+        private final String order;
+        private final String file;
+        private final List<Technique> techniques;
+
+        private Configured(String order, String file, List<Technique> techniques){
+            this.order = order;
+            this.file = file;
+            this.techniques = techniques;
+        }
+    }
+
+    /**
+     * Parses a comma separated list of technique names. Case and surrounding spaces are ignored,
+     * and only the first occurrence of a repeated technique is kept
+     * @param order the list of names, or null or blank for every technique from cheapest to most expensive
+     * @return a new list of techniques, each at most once
+     * @throws IllegalArgumentException if a name is not a technique
+     */
+    public static List<Technique> parseOrder(String order){
+        if(order == null || order.isBlank()){
+            return new ArrayList<>(Arrays.asList(values()));
+        }
+        Set<Technique> techniques = new LinkedHashSet<>();
+        for(String name: order.split(",")){
+            if(!name.isBlank()){
+                techniques.add(valueOf(name.trim().toUpperCase()));
+            }
+        }
+        return new ArrayList<>(techniques);
+    }
+}
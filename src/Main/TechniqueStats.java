@@ -0,0 +1,194 @@
+package Main;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Measured time and eliminations of each technique, used to order the techniques of solvers
+ * by their yield, the number of candidates removed per nanosecond. One instance can be shared
+ * by many solvers, including solvers on different threads.
+ * Once frozen, the learned order no longer changes, and can be saved to a file that
+ * Technique.configuredOrder reloads at startup, see Technique.ORDER_FILE_PROPERTY
+ */
+public class TechniqueStats {
+    public static final int DEFAULT_MIN_SAMPLES = 20;
+
+    private static final int NUM_TECHNIQUES = Technique.values().length;
+    private final AtomicLongArray nanos = new AtomicLongArray(NUM_TECHNIQUES);
+    private final AtomicLongArray eliminations = new AtomicLongArray(NUM_TECHNIQUES);
+    private final AtomicLongArray runs = new AtomicLongArray(NUM_TECHNIQUES);
+    private final int minSamples; // the number of runs before a technique is ordered by its yield
+    private volatile List<Technique> frozen; // the order once frozen, null before
+
+    /**
+     * Constructs empty statistics that order a technique by its yield once it has run
+     * DEFAULT_MIN_SAMPLES times
+     */
+    public TechniqueStats(){
+        this(DEFAULT_MIN_SAMPLES);
+    }
+
+    /**
+     * Constructs empty statistics
+     * @param minSamples the number of runs before a technique is ordered by its yield, at least 1
+     */
+    public TechniqueStats(int minSamples){
+        if(minSamples < 1){
+            throw new IllegalArgumentException("minSamples must be at least 1");
+        }
+        this.minSamples = minSamples;
+    }
+
+    /**
+     * Records one run of a technique. Ignored once frozen
+     * @param technique the technique that was run
+     * @param nanos the time the run took
+     * @param eliminations the number of candidates the run removed
+     */
+    public void record(Technique technique, long nanos, int eliminations){
+        if(frozen != null){
+            return;
+        }
+        int index = technique.ordinal();
+        this.nanos.addAndGet(index, nanos);
+        this.eliminations.addAndGet(index, eliminations);
+        runs.incrementAndGet(index);
+    }
+
+    /**
+     * Returns the number of recorded runs of a technique
+     * @param technique the technique
+     * @return the number of runs
+     */
+    public long getRuns(Technique technique){
+        return runs.get(technique.ordinal());
+    }
+
+    /**
+     * Returns the number of candidates removed by a technique
+     * @param technique the technique
+     * @return the number of eliminations of every recorded run
+     */
+    public long getEliminations(Technique technique){
+        return eliminations.get(technique.ordinal());
+    }
+
+    /**
+     * Returns the measured yield of a technique
+     * @param technique the technique
+     * @return the number of candidates removed per nanosecond, 0 if it has not run
+     */
+    public double getYield(Technique technique){
+        int index = technique.ordinal();
+        return eliminations.get(index) / (double) Math.max(nanos.get(index), 1);
+    }
+
+    /**
+     * Orders the given techniques by their measured yield. Techniques that have run fewer than
+     * minSamples times keep their place in techniques, and the places of the others are filled
+     * with them from highest to lowest yield. Techniques that have never removed a candidate in
+     * minSamples runs are skipped to the end, so they are only tried when every other technique stalls.
+     * Once frozen, returns the frozen order restricted to techniques
+     * @param techniques the techniques to be ordered, cheapest first
+     * @return a new list of the same techniques
+     */
+    public List<Technique> order(List<Technique> techniques){
+        List<Technique> frozenOrder = frozen;
+        if(frozenOrder != null){
+            List<Technique> ordered = new ArrayList<>(frozenOrder);
+            ordered.retainAll(techniques);
+            for(Technique technique: techniques){
+                if(!ordered.contains(technique)){
+                    ordered.add(technique);
+                }
+            }
+            return ordered;
+        }
+        //other threads may record while ordering, so every technique is read once
+        boolean[] isMeasured = new boolean[NUM_TECHNIQUES];
+        double[] yields = new double[NUM_TECHNIQUES];
+        List<Technique> measured = new ArrayList<>();
+        List<Technique> skipped = new ArrayList<>();
+        for(Technique technique: techniques){
+            int index = technique.ordinal();
+            if(getRuns(technique) >= minSamples){
+                long removed = eliminations.get(index);
+                if(removed == 0){
+                    skipped.add(technique);
+                } else {
+                    isMeasured[index] = true;
+                    yields[index] = removed / (double) Math.max(nanos.get(index), 1);
+                    measured.add(technique);
+                }
+            }
+        }
+        measured.sort(Comparator.comparingDouble((Technique technique) -> yields[technique.ordinal()]).reversed());
+        List<Technique> ordered = new ArrayList<>(techniques.size());
+        Iterator<Technique> byYield = measured.iterator();
+        for(Technique technique: techniques){
+            if(skipped.contains(technique)){
+                continue;
+            }
+            ordered.add(isMeasured[technique.ordinal()] ? byYield.next() : technique);
+        }
+        ordered.addAll(skipped);
+        return ordered;
+    }
+
+    /**
+     * Stops learning and fixes the order of the techniques to their current order
+     * @return the frozen order of every technique
+     */
+    public List<Technique> freeze(){
+        if(frozen == null){
+            frozen = Collections.unmodifiableList(order(Arrays.asList(Technique.values())));
+        }
+        return frozen;
+    }
+
+    /**
+     * Returns whether the order has been frozen
+     * @return true iff freeze has been called
+     */
+    public boolean isFrozen(){
+        return frozen != null;
+    }
+
+    /**
+     * Freezes the order and writes it to a file as a comma separated list of technique names,
+     * the format of Technique.ORDER_PROPERTY
+     * @param file the file to be written
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path file) throws IOException {
+        Files.write(file, Collections.singletonList(toOrderString(freeze())), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads an order written by save
+     * @param file the file to be read
+     * @return a new list of the techniques in the file
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file names a technique that does not exist
+     */
+    public static List<Technique> load(Path file) throws IOException {
+        return Technique.parseOrder(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Formats an order of techniques as a comma separated list of their names
+     * @param techniques the techniques
+     * @return the names of the techniques, in order, separated by commas
+     */
+    public static String toOrderString(List<Technique> techniques){
+        StringJoiner joiner = new StringJoiner(",");
+        for(Technique technique: techniques){
+            joiner.add(technique.name());
+        }
+        return joiner.toString();
+    }
+}
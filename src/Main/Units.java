@@ -0,0 +1,113 @@
+package Main;
+
+/**
+ * Precomputed index tables over the coords of a sudoku grid, where coord = row * 9 + column.
+ * Units 0-8 are the rows, units 9-17 are the columns and units 18-26 are the boxes,
+ * boxes numbered left to right then top to bottom.
+ * The tables are shared by every grid and must not be modified.
+ */
+public final class Units {
+    public static final int ROW_UNIT = 0; // unit index of row 0
+    public static final int COLUMN_UNIT = 9; // unit index of column 0
+    public static final int BOX_UNIT = 18; // unit index of box 0
+
+    // the coords of the cells of each unit, in row major order
+    public static final int[][] UNITS = new int[27][9];
+    // the row, column and box unit of each cell, in that order
+    public static final int[][] CELL_UNITS = new int[81][3];
+    // the index of each cell inside its row, column and box unit, in that order
+    public static final int[][] UNIT_POSITIONS = new int[81][3];
+    // the 20 other cells that share a unit with each cell: the row, then the column, then the rest of the box
+    public static final int[][] PEERS = new int[81][20];
+    // the cells seen by each cell, the cell itself included, in the order of Grid.getSeenCells
+    public static final int[][] SEEN = new int[81][21];
+    // the peers of each cell as a coord bitset, bit coord % 64 of word coord / 64
+    public static final long[][] PEER_MASKS = new long[81][2];
+    // the cells that are peers of both of two cells, index coordOne * 81 + coordTwo, in the layout of PEER_MASKS
+    public static final long[][] COMMON_PEERS = new long[81 * 81][2];
+    // every 9 bit mask with exactly k bits set, SUBSETS[k], in increasing order
+    public static final int[][] SUBSETS = new int[10][];
+
+    static {
+        for(int coord = 0; coord < 81; coord++){
+            int row = coord / 9;
+            int column = coord % 9;
+            int box = boxOf(row, column);
+            int boxPosition = (row % 3) * 3 + column % 3;
+            UNITS[ROW_UNIT + row][column] = coord;
+            UNITS[COLUMN_UNIT + column][row] = coord;
+            UNITS[BOX_UNIT + box][boxPosition] = coord;
+            CELL_UNITS[coord] = new int[]{ROW_UNIT + row, COLUMN_UNIT + column, BOX_UNIT + box};
+            UNIT_POSITIONS[coord] = new int[]{column, row, boxPosition};
+        }
+        for(int coord = 0; coord < 81; coord++){
+            int row = coord / 9;
+            int column = coord % 9;
+            int numPeers = 0;
+            int numSeen = 0;
+            for(int c = 0; c < 9; c++){
+                SEEN[coord][numSeen++] = row * 9 + c;
+                if(c != column){
+                    PEERS[coord][numPeers++] = row * 9 + c;
+                }
+            }
+            for(int r = 0; r < 9; r++){
+                if(r != row){
+                    SEEN[coord][numSeen++] = r * 9 + column;
+                    PEERS[coord][numPeers++] = r * 9 + column;
+                }
+            }
+            for(int peer: UNITS[CELL_UNITS[coord][2]]){
+                if(peer / 9 != row && peer % 9 != column){
+                    SEEN[coord][numSeen++] = peer;
+                    PEERS[coord][numPeers++] = peer;
+                }
+            }
+            for(int peer: PEERS[coord]){
+                PEER_MASKS[coord][peer >>> 6] |= 1L << peer;
+            }
+        }
+        for(int coordOne = 0; coordOne < 81; coordOne++){
+            for(int coordTwo = 0; coordTwo < 81; coordTwo++){
+                for(int word = 0; word < 2; word++){
+                    COMMON_PEERS[coordOne * 81 + coordTwo][word] = PEER_MASKS[coordOne][word] & PEER_MASKS[coordTwo][word];
+                }
+            }
+        }
+        int[] numSubsets = new int[10];
+        for(int mask = 0; mask < 512; mask++){
+            numSubsets[Integer.bitCount(mask)]++;
+        }
+        for(int k = 0; k <= 9; k++){
+            SUBSETS[k] = new int[numSubsets[k]];
+            numSubsets[k] = 0;
+        }
+        for(int mask = 0; mask < 512; mask++){
+            int k = Integer.bitCount(mask);
+            SUBSETS[k][numSubsets[k]++] = mask;
+        }
+    }
+
+    private Units(){
+    }
+
+    /**
+     * Returns the index of the box containing the given position, 0-8
+     * @param row the row of the position
+     * @param column the column of the position
+     * @return the box of the position, numbered left to right then top to bottom
+     */
+    public static int boxOf(int row, int column){
+        return (row / 3) * 3 + column / 3;
+    }
+
+    /**
+     * Returns whether two cells share a row, column or box
+     * @param coordOne the coord of the first cell
+     * @param coordTwo the coord of the second cell
+     * @return true iff the cells are different and see each other
+     */
+    public static boolean isPeer(int coordOne, int coordTwo){
+        return (PEER_MASKS[coordOne][coordTwo >>> 6] & (1L << coordTwo)) != 0;
+    }
+}
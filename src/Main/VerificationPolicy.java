@@ -0,0 +1,232 @@
+package Main;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * How much of the logical solving done by Solver.solve is checked against the solution found by
+ * exact cover. A check fails if the solver removed a candidate of the solution or contradicted
+ * a grid that has a solution. Grids without a solution are never reported.
+ * OFF never checks. FULL checks every step of every solve, SAMPLED every step of one solve in N,
+ * and ASYNC checks the result of every solve on an executor, off the solving thread.
+ * One policy can be shared by many solvers, including solvers on different threads.
+ * The policy of new solvers can be set per deployment with the system property PROPERTY,
+ * one of "off", "full", "sampled:N" or "async"
+ */
+public final class VerificationPolicy {
+    public static final String PROPERTY = "sudoku.verification";
+
+    public enum Mode { OFF, SAMPLED, ASYNC, FULL }
+
+    /**
+     * Receives the checks that failed
+     */
+    @FunctionalInterface
+    public interface MismatchListener {
+        /**
+         * Called once for every failed check, on the thread that checked
+         * @param puzzle a copy of the grid before solving
+         * @param result a copy of the grid when the check failed
+         * @param reason what was wrong with result
+         */
+        void onMismatch(Grid puzzle, Grid result, String reason);
+    }
+
+    // throws, so that a failed synchronous check stops the solve that failed it
+    private static final MismatchListener THROWING = (puzzle, result, reason) -> {
+        throw new AssertionError(reason + "\n" + puzzle + "\n" + result);
+    };
+
+    public static final VerificationPolicy OFF = new VerificationPolicy(Mode.OFF, 1, null, THROWING);
+    public static final VerificationPolicy FULL = new VerificationPolicy(Mode.FULL, 1, null, THROWING);
+    // the policy parsed from PROPERTY, with the value it was parsed from, parsed again only if it changes
+    private static volatile Configured configured;
+
+    private final Mode mode;
+    private final int oneIn; // the number of solves per checked solve
+    private final Executor executor; // runs the checks of ASYNC, null otherwise
+    private final MismatchListener listener;
+    private final AtomicLong solves = new AtomicLong();
+    private final AtomicLong mismatches = new AtomicLong();
+
+    private VerificationPolicy(Mode mode, int oneIn, Executor executor, MismatchListener listener){
+        this.mode = mode;
+        this.oneIn = oneIn;
+        this.executor = executor;
+        this.listener = listener;
+    }
+
+    /**
+     * Returns a policy that checks every step of one solve in oneIn, and throws an AssertionError
+     * from the solve that fails a check
+     * @param oneIn the number of solves per checked solve, at least 1
+     * @return a new policy with its own count of solves
+     */
+    public static VerificationPolicy sampled(int oneIn){
+        if(oneIn < 1){
+            throw new IllegalArgumentException("oneIn must be at least 1");
+        }
+        return new VerificationPolicy(Mode.SAMPLED, oneIn, null, THROWING);
+    }
+
+    /**
+     * Returns a policy that checks the result of every solve on the given executor
+     * @param executor the executor the checks are run on
+     * @param listener receives the checks that failed, on a thread of executor
+     * @return a new policy
+     */
+    public static VerificationPolicy async(Executor executor, MismatchListener listener){
+        return new VerificationPolicy(Mode.ASYNC, 1,
+                Objects.requireNonNull(executor), Objects.requireNonNull(listener));
+    }
+
+    /**
+     * Returns the policy set by the system property PROPERTY, or OFF if it is not set. Solvers use it
+     * by default. The property is parsed the first time this is called and again only if it is
+     * changed, so the same policy, with its counts, is returned until then
+     * @return the configured policy, shared by every caller
+     * @throws IllegalArgumentException if the property is not a policy
+     */
+    public static VerificationPolicy configured(){
+        String property = System.getProperty(PROPERTY);
+        Configured cached = configured;
+        if(cached == null || !Objects.equals(cached.property, property)){
+            cached = new Configured(property, parse(property));
+            configured = cached;
+        }
+        return cached.policy;
+    }
+
+    /**
+     * A policy parsed by configured, with the property value it was parsed from
+     */
+    private static final class Configured {
+        private final String property;
+        private final VerificationPolicy policy;
+
+        private Configured(String property, VerificationPolicy policy){
+            this.property = property;
+            this.policy = policy;
+        }
+    }
+
+    /**
+     * Parses a policy in the format of PROPERTY. "async" checks on the common fork join pool
+     * and prints failed checks to System.err
+     * @param policy the policy, or null or blank for OFF
+     * @return the policy
+     * @throws IllegalArgumentException if policy is not a policy
+     */
+    public static VerificationPolicy parse(String policy){
+        if(policy == null || policy.isBlank()){
+            return OFF;
+        }
+        String name = policy.trim().toLowerCase();
+        switch(name){
+            case "off":
+                return OFF;
+            case "full":
+                return FULL;
+            case "async":
+                return async(ForkJoinPool.commonPool(),
+                        (puzzle, result, reason) -> System.err.println(reason + "\n" + puzzle + "\n" + result));
+            default:
+                if(name.startsWith("sampled:")){
+                    try {
+                        return sampled(Integer.parseInt(name.substring("sampled:".length())));
+                    } catch (NumberFormatException e){
+                        throw new IllegalArgumentException("Not a verification policy: " + policy, e);
+                    }
+                }
+                throw new IllegalArgumentException("Not a verification policy: " + policy);
+        }
+    }
+
+    /**
+     * Returns the mode of this policy
+     * @return the mode
+     */
+    public Mode getMode(){
+        return mode;
+    }
+
+    /**
+     * Returns the number of checks that failed under this policy
+     * @return the number of failed checks so far
+     */
+    public long getMismatches(){
+        return mismatches.get();
+    }
+
+    /**
+     * Decides whether the steps of the solve that is starting are checked
+     * @return true iff every step of the solve should be checked with checkStep
+     */
+    boolean startSolve(){
+        switch(mode){
+            case FULL:
+                return true;
+            case SAMPLED:
+                return solves.getAndIncrement() % oneIn == 0;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Checks a step of a solve, reporting a failed check
+     * @param puzzle the grid before solving
+     * @param solution the solution of puzzle, or null if it has none
+     * @param grid the grid being solved
+     */
+    void checkStep(Grid puzzle, Grid solution, Grid grid){
+        String reason = findMismatch(solution, grid);
+        if(reason != null){
+            mismatches.incrementAndGet();
+            listener.onMismatch(puzzle.clone(), grid.clone(), reason);
+        }
+    }
+
+    /**
+     * Checks the result of a solve on the executor if the mode is ASYNC. The grids must not be
+     * changed afterwards
+     * @param puzzle the grid before solving
+     * @param result the grid after solving
+     */
+    void checkResult(Grid puzzle, Grid result){
+        if(mode != Mode.ASYNC){
+            return;
+        }
+        executor.execute(() -> {
+            Grid solution = puzzle.clone();
+            String reason = findMismatch(DancingLinks.solve(solution) ? solution : null, result);
+            if(reason != null){
+                mismatches.incrementAndGet();
+                listener.onMismatch(puzzle, result, reason);
+            }
+        });
+    }
+
+    /**
+     * Compares a grid with the solution of the puzzle it was solved from
+     * @param solution the solution, or null if the puzzle has none
+     * @param grid the grid
+     * @return what is wrong with grid, or null if it agrees with solution
+     */
+    private static String findMismatch(Grid solution, Grid grid){
+        if(solution == null){
+            return null;
+        }
+        if(grid.hasContradiction()){
+            return "Contradiction found in a grid with a solution";
+        }
+        for(int coord = 0; coord < 81; coord++){
+            if((grid.getCandMask(coord) & solution.getCandMask(coord)) == 0){
+                return "Cell " + coord + " lost its solution " + solution.getVal(coord / 9, coord % 9);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,73 @@
+package Test.Java;
+import Main.BatchSolver;
+import Main.DancingLinks;
+import Main.Grid;
+import Main.TechniqueStats;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class BatchSolverTest {
+
+    private List<String> getPuzzles(String... fileNames) throws IOException {
+        List<String> puzzles = new ArrayList<>();
+        for(String fileName: fileNames){
+            for(String line: Files.readAllLines(Paths.get("src/Test/text/" + fileName))){
+                if(!line.isBlank()){
+                    puzzles.add(line);
+                }
+            }
+        }
+        return puzzles;
+    }
+
+    @Test
+    public void test_results_in_input_order() throws IOException {
+        List<String> puzzles = getPuzzles("diff1.txt", "diff2.txt", "diff3.txt", "diff4.txt");
+        List<BatchSolver.Result> results = new BatchSolver().solveAll(puzzles);
+        assertEquals(puzzles.size(), results.size());
+        for(int i = 0; i < puzzles.size(); i++){
+            BatchSolver.Result result = results.get(i);
+            assertEquals(i, result.getIndex());
+            assertEquals(puzzles.get(i), result.getPuzzle());
+            assertTrue(result.isSolved());
+            Grid solution = new Grid(puzzles.get(i));
+            assertTrue(DancingLinks.solve(solution));
+            assertEquals(solution, new Grid(result.getGrid()));
+        }
+    }
+
+    @Test
+    public void test_results_as_completed() throws IOException {
+        List<String> puzzles = getPuzzles("diff5.txt", "diff3.txt");
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            BatchSolver batchSolver = new BatchSolver(pool, new TechniqueStats());
+            Queue<BatchSolver.Result> completed = new ConcurrentLinkedQueue<>();
+            batchSolver.solveAll(puzzles, completed::add);
+            assertEquals(puzzles.size(), completed.size());
+            //the same as solving one at a time, whatever order they completed in
+            List<BatchSolver.Result> inOrder = batchSolver.solveAll(puzzles.stream());
+            Set<Integer> indexes = new HashSet<>();
+            for(BatchSolver.Result result: completed){
+                assertTrue(indexes.add(result.getIndex()));
+                assertEquals(inOrder.get(result.getIndex()).isSolved(), result.isSolved());
+                assertEquals(puzzles.get(result.getIndex()), result.getPuzzle());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void test_empty_batch(){
+        assertEquals(Collections.emptyList(), new BatchSolver().solveAll(Collections.emptyList()));
+    }
+}
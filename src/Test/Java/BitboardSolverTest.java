@@ -0,0 +1,108 @@
+package Test.Java;
+
+import Main.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class BitboardSolverTest {
+    Scanner sudokScanner;
+    String testCasesFile;
+    String[] difFiles = new String[6];
+
+    @Before
+    public void setUpVariables(){
+        testCasesFile = "testCases.txt";
+        difFiles = new String[]{null, "diff1.txt", "diff2.txt", "diff3.txt", "diff4.txt", "diff5.txt", "oldTests.txt"};
+    }
+
+    @Test
+    public void test_solves_all_stored(){
+        for(int i = 1; i <= 6; i++){
+            for(Grid grid: getGrids(difFiles[i])){
+                Grid expected = grid.clone();
+                assertTrue(DancingLinks.solve(expected));
+                assertTrue(BitboardSolver.solve(grid));
+                assertEquals(expected, grid);
+            }
+        }
+    }
+
+    @Test
+    public void test_solves_int_grid(){
+        for(Grid grid: getGrids(difFiles[5])){
+            int[][] intGrid = new int[9][9];
+            for(int r = 0; r < 9; r++){
+                for(int c = 0; c < 9; c++){
+                    intGrid[r][c] = grid.getVal(r, c);
+                }
+            }
+            assertTrue(BitboardSolver.solve(intGrid));
+            assertTrue(BitboardSolver.solve(grid));
+            for(int r = 0; r < 9; r++){
+                for(int c = 0; c < 9; c++){
+                    assertEquals(grid.getVal(r, c), intGrid[r][c]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_count_solutions(){
+        for(Grid grid: getGrids(difFiles[4])){
+            assertEquals(1, BitboardSolver.countSolutions(grid, 2));
+        }
+        assertEquals(7, BitboardSolver.countSolutions(new Grid(), 7));
+        List<Grid> testCases = getGrids(testCasesFile);
+        for(int i = 29; i < 48; i++){
+            assertEquals(DancingLinks.countSolutions(testCases.get(i), 2),
+                    BitboardSolver.countSolutions(testCases.get(i), 2));
+        }
+        assertFalse(BitboardSolver.solve(testCases.get(29)));
+    }
+
+    @Test
+    public void test_parallel_search(){
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for(Grid grid: getGrids(difFiles[5])){
+                Grid expected = grid.clone();
+                assertTrue(BitboardSolver.solve(expected));
+                assertEquals(1, BitboardSolver.countSolutions(grid, 2, pool));
+                assertTrue(BitboardSolver.solve(grid, pool));
+                assertEquals(expected, grid);
+            }
+            //the empty grid has solutions in every branch, so every task stops at the limit
+            assertEquals(50, BitboardSolver.countSolutions(new Grid(), 50, pool));
+            Grid empty = new Grid();
+            assertTrue(BitboardSolver.solve(empty, pool));
+            assertTrue(empty.isSolved());
+            List<Grid> testCases = getGrids(testCasesFile);
+            for(int i = 29; i < 48; i++){
+                assertEquals(BitboardSolver.countSolutions(testCases.get(i), 1000),
+                        BitboardSolver.countSolutions(testCases.get(i), 1000, pool));
+            }
+            assertFalse(BitboardSolver.solve(testCases.get(29), pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private List<Grid> getGrids(String fileName){
+        try{
+            sudokScanner = new Scanner(new File("src/Test/text/" + fileName));
+        } catch (Exception e){
+            throw new RuntimeException(e);
+        }
+        List<Grid> grids = new ArrayList<>();
+        while (sudokScanner.hasNext()) {
+            grids.add(new Grid(sudokScanner.nextLine()));
+        }
+        return grids;
+    }
+}
@@ -2,6 +2,8 @@ package Test.Java;
 import Main.Cell;
 import org.junit.Test;
 
+import java.util.*;
+
 import static org.junit.Assert.*;
 
 public class CellTest {
@@ -115,6 +117,20 @@ public class CellTest {
         }
     }
 
+    @Test
+    public void test_mask_is_correct(){
+        Cell cell = new Cell();
+        assertEquals(Cell.ALL_CANDS, cell.getCandMask());
+        assertTrue(cell.removeAll(Cell.bit(1) | Cell.bit(5) | Cell.bit(9)));
+        assertFalse(cell.removeAll(Cell.bit(1) | Cell.bit(5)));
+        assertEquals(6, cell.size());
+        assertEquals(new HashSet<>(Arrays.asList(2, 3, 4, 6, 7, 8)), cell.getCands());
+        cell.removeAll(new HashSet<>(Arrays.asList(2, 3, 4, 6, 7)));
+        assertTrue(cell.isSolved());
+        assertEquals(8, cell.getVal());
+        assertThrows(IllegalStateException.class, ()->
+                cell.removeAll(Cell.bit(8)));
+    }
 
     //Todo: test throws with invalid parameters
 
@@ -0,0 +1,117 @@
+package Test.Java;
+import Main.CoordQueue;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class CoordQueueTest {
+    CoordQueue queue;
+    @Before
+    public void setUpVariables(){
+        queue = new CoordQueue(100);
+    }
+
+    @Test
+    public void construction_test(){
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.size());
+        assertNull(queue.peek());
+        assertNull(queue.poll());
+        assertThrows(NoSuchElementException.class, queue::removeCoord);
+    }
+
+    @Test
+    public void add_duplicate_test(){
+        for(int i = 0; i < 10; i++){
+            assertTrue(queue.addCoord(i));
+        }
+        for(int i = 0; i < 100; i++){
+            assertEquals(10, queue.size());
+            assertFalse(queue.addCoord(i % 10));
+            assertTrue(queue.containsCoord(i % 10));
+        }
+        assertFalse(queue.containsCoord(10));
+        assertFalse(queue.contains(-1));
+    }
+
+    @Test
+    public void remove_order_wraps_test(){
+        //keep the queue partially full so the ring buffer wraps around many times
+        int next = 0;
+        for(int i = 0; i < 60; i++){
+            queue.addCoord(next++ % 100);
+        }
+        for(int i = 0; i < 1000; i++){
+            assertEquals((i % 100), queue.removeCoord());
+            assertFalse(queue.containsCoord(i % 100));
+            assertTrue(queue.addCoord(next++ % 100));
+            assertEquals(60, queue.size());
+        }
+        List<Integer> expected = new ArrayList<>();
+        for(int i = 1000; i < 1060; i++){
+            expected.add(i % 100);
+        }
+        assertEquals(expected, new ArrayList<>(queue));
+    }
+
+    @Test
+    public void clear_and_reuse_test(){
+        queue.addAllCoords();
+        assertEquals(100, queue.size());
+        queue.removeCoord();
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        assertFalse(queue.containsCoord(50));
+        assertTrue(queue.add(50));
+        assertTrue(queue.offer(3));
+        assertEquals(50, (int) queue.peek());
+        assertEquals(50, (int) queue.poll());
+        assertEquals(3, queue.removeCoord());
+    }
+
+    @Test
+    public void remove_from_middle_test(){
+        //wrap the ring buffer around first
+        for(int i = 0; i < 95; i++){
+            queue.addCoord(i);
+        }
+        for(int i = 0; i < 95; i++){
+            queue.removeCoord();
+        }
+        List<Integer> expected = new ArrayList<>();
+        for(int i = 0; i < 20; i++){
+            queue.addCoord(i * 3);
+            expected.add(i * 3);
+        }
+        assertTrue(queue.remove((Object) 9));
+        assertFalse(queue.remove((Object) 10));
+        expected.remove((Object) 9);
+        assertTrue(queue.removeAll(Arrays.asList(0, 30, 57)));
+        expected.removeAll(Arrays.asList(0, 30, 57));
+        assertEquals(expected, new ArrayList<>(queue));
+        assertTrue(queue.retainAll(Arrays.asList(3, 6, 12, 54)));
+        assertEquals(Arrays.asList(3, 6, 12, 54), new ArrayList<>(queue));
+        assertFalse(queue.containsCoord(30));
+        //removed coords can be added again, at the back
+        assertTrue(queue.addCoord(30));
+        assertEquals(Arrays.asList(3, 6, 12, 54, 30), new ArrayList<>(queue));
+        assertEquals(3, queue.removeCoord());
+    }
+
+    @Test
+    public void iterator_remove_test(){
+        queue.addCoord(1);
+        queue.addCoord(2);
+        Iterator<Integer> itr = queue.iterator();
+        assertThrows(IllegalStateException.class, itr::remove);
+        assertEquals(1, (int) itr.next());
+        itr.remove();
+        assertThrows(IllegalStateException.class, itr::remove);
+        assertEquals(2, (int) itr.next());
+        assertFalse(itr.hasNext());
+        assertEquals(Collections.singletonList(2), new ArrayList<>(queue));
+    }
+}
@@ -0,0 +1,82 @@
+package Test.Java;
+
+import Main.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class DancingLinksTest {
+    Scanner sudokScanner;
+    String testCasesFile;
+    String[] difFiles = new String[6];
+
+    @Before
+    public void setUpVariables(){
+        testCasesFile = "testCases.txt";
+        difFiles = new String[]{null, "diff1.txt", "diff2.txt", "diff3.txt", "diff4.txt", "diff5.txt", "oldTests.txt"};
+    }
+
+    @Test
+    public void test_solves_all_stored(){
+        for(int i = 1; i <= 6; i++){
+            for(Grid grid: getGrids(difFiles[i])){
+                Grid bruteForce = grid.clone();
+                assertTrue(Generator.bruteForceSolver(bruteForce));
+                assertTrue(DancingLinks.solve(grid));
+                assertTrue(grid.isSolved());
+                assertEquals(bruteForce, grid);
+            }
+        }
+    }
+
+    @Test
+    public void test_count_solutions(){
+        for(Grid grid: getGrids(difFiles[5])){
+            assertEquals(1, DancingLinks.countSolutions(grid, 2));
+            assertFalse(grid.isSolved());
+        }
+        assertEquals(5, DancingLinks.countSolutions(new Grid(), 5));
+        List<Grid> testCases = getGrids(testCasesFile);
+        for(int i = 29; i < 48; i++){
+            assertNotEquals(1, DancingLinks.countSolutions(testCases.get(i), 2));
+        }
+    }
+
+    @Test
+    public void test_get_solutions(){
+        List<Grid> solutions = DancingLinks.getSolutions(new Grid(), 10);
+        assertEquals(10, solutions.size());
+        assertEquals(10, new HashSet<>(gridStrings(solutions)).size());
+        for(Grid solution: solutions){
+            assertTrue(solution.isSolved());
+        }
+        Grid grid = getGrids(difFiles[4]).get(0);
+        solutions = DancingLinks.getSolutions(grid, 2);
+        assertEquals(1, solutions.size());
+    }
+
+    private List<String> gridStrings(List<Grid> grids){
+        List<String> strings = new ArrayList<>();
+        for(Grid grid: grids){
+            strings.add(grid.toString());
+        }
+        return strings;
+    }
+
+    private List<Grid> getGrids(String fileName){
+        try{
+            sudokScanner = new Scanner(new File("src/Test/text/" + fileName));
+        } catch (Exception e){
+            throw new RuntimeException(e);
+        }
+        List<Grid> grids = new ArrayList<>();
+        while (sudokScanner.hasNext()) {
+            grids.add(new Grid(sudokScanner.nextLine()));
+        }
+        return grids;
+    }
+}
@@ -52,6 +52,34 @@ public class GeneratorTest {
         }
     }
 
+    @Test
+    public void test_is_valid_slow(){
+        assertFalse(Generator.isValidSlow(grid));
+        List<Grid> testCases = getGrids(testCasesFile);
+        for(int i = 29; i < 48; i++){
+            assertEquals(Generator.isValid(testCases.get(i)), Generator.isValidSlow(testCases.get(i)));
+        }
+        for(Grid valid: getGrids(difFiles[5])){
+            assertTrue(Generator.isValidSlow(valid));
+        }
+    }
+
+    @Test
+    public void test_count_solutions(){
+        assertEquals(2, Generator.countSolutions(grid, 2));
+        assertEquals(50, Generator.countSolutions(grid, 50));
+        for(Grid valid: getGrids(difFiles[5])){
+            Grid copy = valid.clone();
+            assertEquals(1, Generator.countSolutions(valid, 2));
+            assertEquals(copy, valid);
+        }
+        //a solved grid is its only solution
+        Grid puzzle = getGrids(difFiles[1]).get(0);
+        Grid solution = puzzle.clone();
+        assertTrue(Generator.bruteForceSolver(solution));
+        assertEquals(1, Generator.countSolutions(solution, 2));
+    }
+
     @Test
     public void test_brute_force_solves(){
         for(int i = 1; i <= 6; i++){
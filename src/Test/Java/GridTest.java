@@ -1,6 +1,7 @@
 package Test.Java;
 import Main.Cell;
 import Main.Grid;
+import Main.Units;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -111,6 +112,66 @@ public class GridTest {
         assertAllButFirstColumnDefault(grid);
     }
 
+    @Test
+    public void test_remove_cands_contradiction(){
+        assertFalse(grid.removeCands(0, 0));
+        assertTrue(grid.removeCands(0, Cell.ALL_CANDS & ~Cell.bit(5)));
+        assertEquals(5, grid.getVal(0, 0));
+        assertFalse(grid.hasContradiction());
+        //removing the last candidate marks the grid instead of throwing
+        assertFalse(grid.removeCands(0, Cell.bit(5)));
+        assertEquals(Cell.bit(5), grid.getCandMask(0));
+        assertTrue(grid.hasContradiction());
+        assertTrue(grid.clone().hasContradiction());
+
+        Grid duplicate = new Grid();
+        duplicate.solveCell(0, 0, 1);
+        duplicate.solveCell(8, 0, 1);
+        assertTrue(duplicate.hasContradiction());
+
+        Grid marked = new Grid();
+        marked.markContradiction();
+        assertTrue(marked.hasContradiction());
+        assertEquals(new Grid(), marked);
+        marked.reset();
+        assertFalse(marked.hasContradiction());
+    }
+
+    @Test
+    public void test_load_and_reset(){
+        String puzzle = "530070000600195000098000060800060003400803001700020006060000280000419005000080079";
+        grid.solveCell(0, 0, 1);
+        grid.solveCell(0, 1, 1);
+        assertTrue(grid.hasContradiction());
+        grid.load(puzzle);
+        Grid expected = new Grid(puzzle);
+        assertEquals(expected, grid);
+        assertEquals(expected.numSolved(), grid.numSolved());
+        assertFalse(grid.hasContradiction());
+        for(int unit = 0; unit < 27; unit++){
+            for(int value = 1; value <= 9; value++){
+                assertEquals(expected.getCandPositions(unit, value), grid.getCandPositions(unit, value));
+            }
+        }
+        grid.reset();
+        assertEquals(new Grid(), grid);
+        assertEquals(0, grid.numSolved());
+        assertAllButFirstColumnDefault(grid);
+    }
+
+    @Test
+    public void test_copy_from(){
+        Grid other = new Grid("530070000600195000098000060800060003400803001700020006060000280000419005000080079");
+        other.removeCand(0, 2, 1);
+        grid.copyFrom(other);
+        assertEquals(other, grid);
+        assertEquals(other.numSolved(), grid.numSolved());
+        assertEquals(other.getCandPositions(0, 1), grid.getCandPositions(0, 1));
+        //the copy is independent of other
+        grid.solveCell(0, 2, 4);
+        assertNotEquals(other, grid);
+    }
+
     @Test
     public void test_get_row(){
         for(int r = 0; r < 9; r++){
@@ -362,6 +423,115 @@ public class GridTest {
         assertFalse(grid.canSolveSimple(8, 8, 1));
     }
 
+    @Test
+    public void test_clone_is_independent(){
+        grid.solveCell(0, 0, 1);
+        Grid copy = grid.clone();
+        assertEquals(grid, copy);
+        Cell view = copy.getCell(4, 4);
+        view.remove(5);
+        assertFalse(copy.getCands(4, 4).contains(5));
+        assertTrue(grid.getCands(4, 4).contains(5));
+        assertNotEquals(grid, copy);
+        assertEquals(1, copy.getVal(0, 0));
+    }
+
+    @Test
+    public void test_bivalues_match_cells(){
+        Random random = new Random(1);
+        initializeScanner(difFiles[4]);
+        while(sudokScanner.hasNext()){
+            grid = new Grid(sudokScanner.next());
+            for(int i = 0; i < 300; i++){
+                Cell cell = grid.getCell(random.nextInt(81));
+                if(!cell.isSolved()){
+                    cell.remove(random.nextInt(9) + 1);
+                }
+            }
+            Grid copy = grid.clone();
+            for(int coord = 0; coord < 81; coord++){
+                boolean bivalue = Integer.bitCount(grid.getCandMask(coord)) == 2;
+                assertEquals(bivalue, grid.isBivalue(coord));
+                assertEquals(bivalue, (grid.getBivalues(coord / 64) & (1L << coord)) != 0);
+                if(bivalue){
+                    grid.getCell(coord).remove(Integer.numberOfTrailingZeros(grid.getCandMask(coord)) + 1);
+                    assertFalse(grid.isBivalue(coord));
+                    assertTrue(copy.isBivalue(coord));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_strong_links_match_cells(){
+        Random random = new Random(2);
+        initializeScanner(difFiles[4]);
+        while(sudokScanner.hasNext()){
+            grid = new Grid(sudokScanner.next());
+            for(int i = 0; i < 300; i++){
+                Cell cell = grid.getCell(random.nextInt(81));
+                if(!cell.isSolved()){
+                    cell.remove(random.nextInt(9) + 1);
+                }
+                if(i % 50 == 0){
+                    for(int val = 1; val <= 9; val++){
+                        int strongLinks = 0;
+                        for(int unit = 0; unit < 27; unit++){
+                            int count = 0;
+                            for(int coord: Units.UNITS[unit]){
+                                if(!grid.isSolved(coord) && (grid.getCandMask(coord) & Cell.bit(val)) != 0){
+                                    count++;
+                                }
+                            }
+                            strongLinks |= count == 2 ? 1 << unit : 0;
+                        }
+                        assertEquals(strongLinks, grid.getStrongLinkUnits(val));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_unit_counters_match_cells(){
+        Random random = new Random(0);
+        initializeScanner(difFiles[3]);
+        while(sudokScanner.hasNext()){
+            grid = new Grid(sudokScanner.next());
+            for(int i = 0; i < 200; i++){
+                Cell cell = grid.getCell(random.nextInt(81));
+                if(!cell.isSolved()){
+                    cell.remove(random.nextInt(9) + 1);
+                }
+            }
+            int numSolved = 0;
+            for(Cell cell: grid){
+                if(cell.isSolved()){
+                    numSolved++;
+                }
+            }
+            assertEquals(numSolved, grid.numSolved());
+            for(int unit = 0; unit < 27; unit++){
+                int solvedMask = 0;
+                for(int coord: Units.UNITS[unit]){
+                    solvedMask |= grid.isSolved(coord) ? grid.getCandMask(coord) : 0;
+                }
+                assertEquals(solvedMask, grid.getSolvedMask(unit));
+                for(int val = 1; val <= 9; val++){
+                    int positions = 0;
+                    for(int i = 0; i < 9; i++){
+                        Cell cell = grid.getCell(Units.UNITS[unit][i]);
+                        if(!cell.isSolved() && cell.contains(val)){
+                            positions |= 1 << i;
+                        }
+                    }
+                    assertEquals(positions, grid.getCandPositions(unit, val));
+                    assertEquals(Integer.bitCount(positions), grid.getCandCount(unit, val));
+                }
+            }
+        }
+    }
+
     private void removeOneThroughNine(Iterator<Cell> itr){
         int val = 1;
         while (itr.hasNext()) {
@@ -0,0 +1,47 @@
+package Test.Java;
+import Main.Grid;
+import Main.Solver;
+import Main.SolverPool;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SolverPoolTest {
+    private static final String PUZZLE = "530070000600195000098000060800060003400803001700020006060000280000419005000080079";
+    private static final String OTHER = "000000907000420180000705026100904000050000040000507009920108000034059000507000000";
+
+    @Test
+    public void test_reuses_released_solvers(){
+        SolverPool pool = new SolverPool(1);
+        Solver solver = pool.acquire(PUZZLE);
+        assertEquals(new Grid(PUZZLE), solver.grid);
+        assertTrue(solver.solve());
+        pool.release(solver);
+        assertEquals(1, pool.getIdleCount());
+
+        Solver reused = pool.acquire(OTHER);
+        assertSame(solver, reused);
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(new Grid(OTHER), reused.grid);
+        assertTrue(reused.solve());
+    }
+
+    @Test
+    public void test_bounded(){
+        SolverPool pool = new SolverPool(2);
+        Solver[] solvers = new Solver[3];
+        for(int i = 0; i < solvers.length; i++){
+            solvers[i] = pool.acquire(PUZZLE);
+        }
+        assertNotSame(solvers[0], solvers[1]);
+        for(Solver solver: solvers){
+            pool.release(solver);
+        }
+        assertEquals(2, pool.getIdleCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_capacity_at_least_one(){
+        new SolverPool(0);
+    }
+}
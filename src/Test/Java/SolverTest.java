@@ -1,13 +1,21 @@
 package Test.Java;
 import Main.Cell;
+import Main.DancingLinks;
 import Main.Grid;
 import Main.QueueSet;
 import Main.Solver;
+import Main.Technique;
+import Main.VerificationPolicy;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 import static org.junit.Assert.*;
 
@@ -58,6 +66,41 @@ public class SolverTest {
         assertEquals(expected, coordSet);
     }
 
+    @Test
+    public void test_naked_single_cascade(){
+        Grid solution = getGrids(difFiles[1]).get(0);
+        assertTrue(DancingLinks.solve(solution));
+        //every cell after the first also has the value of an earlier peer, so solving
+        //each cell solves the next, 80 cells deep
+        grid.solveCell(0, 0, solution.getVal(0, 0));
+        for(int coord = 1; coord < 81; coord++){
+            int earlierPeer = coord % 9 != 0 ? coord - 1 : coord - 9;
+            grid.setCandMask(coord, Cell.bit(solution.getVal(coord / 9, coord % 9))
+                    | Cell.bit(solution.getVal(earlierPeer / 9, earlierPeer % 9)));
+        }
+        assertTrue(solver.nakedSingle(0, 0, changed));
+        assertTrue(grid.isSolved());
+        assertEquals(solution, grid);
+        assertEquals(80, new HashSet<>(changed).size());
+        assertFalse(solver.nakedSingle(0, 0, changed));
+    }
+
+    @Test
+    public void test_contradiction(){
+        //row 8 holds 1-8 and the column of its last cell holds 9, so that cell repeats a value
+        grid.solveCell(0, 8, 9);
+        for(int c = 0; c < 8; c++){
+            grid.solveCell(8, c, c + 1);
+        }
+        Grid copy = grid.clone();
+        assertFalse(solver.solve());
+        assertTrue(grid.hasContradiction());
+
+        Solver strictSolver = new Solver(copy);
+        strictSolver.setStrict(true);
+        assertThrows(IllegalStateException.class, strictSolver::solve);
+    }
+
     @Test
     public void test_hidden_single(){
         Iterator<Cell> itr = grid.rowItr(0);
@@ -120,6 +163,94 @@ public class SolverTest {
         assertFalse(changed.isEmpty());
     }
 
+    @Test
+    public void test_naked_n_large(){
+        //the first six cells of row 0 only have candidates 1-6
+        for(int c = 0; c < 6; c++){
+            keepCands(grid.getCell(0, c), 1, 2, 3, 4, 5, 6);
+        }
+        assertFalse(solver.nakedCandidateN(0, 8, 5, changed));
+        assertTrue(solver.nakedCandidateN(0, 8, 6, changed));
+        for(int c = 6; c < 9; c++){
+            assertEquals(new HashSet<>(Arrays.asList(7, 8, 9)), grid.getCands(0, c));
+        }
+        //the three cells left are a naked triple in box 2
+        assertTrue(solver.nakedCandidateN(0, 8, 3, changed));
+        assertEquals(new HashSet<>(Arrays.asList(1, 2, 3, 4, 5, 6)), grid.getCands(1, 6));
+        assertEquals(cands, grid.getCands(1, 5));
+    }
+
+    @Test
+    public void test_hidden_pair(){
+        //1 and 2 can only go in cells 0 and 1 of row 0
+        for(int c = 2; c < 9; c++){
+            grid.removeCand(0, c, 1);
+            grid.removeCand(0, c, 2);
+        }
+        assertTrue(solver.hiddenCandidatePair(0, 5, changed));
+        assertEquals(new HashSet<>(Arrays.asList(1, 2)), grid.getCands(0, 0));
+        assertEquals(new HashSet<>(Arrays.asList(1, 2)), grid.getCands(0, 1));
+        assertEquals(cands.size() - 2, grid.getCands(0, 2).size());
+        assertFalse(solver.hiddenCandidatePair(0, 5, changed));
+    }
+
+    @Test
+    public void test_hidden_n(){
+        //3, 4 and 5 can only go in the first three cells of column 8, each in only two of them
+        for(int r = 3; r < 9; r++){
+            for(int cand = 3; cand <= 5; cand++){
+                grid.removeCand(r, 8, cand);
+            }
+        }
+        grid.removeCand(0, 8, 3);
+        grid.removeCand(1, 8, 4);
+        grid.removeCand(2, 8, 5);
+        assertFalse(solver.hiddenCandidateN(8, 8, 2, changed));
+        assertTrue(solver.hiddenCandidateN(8, 8, 3, changed));
+        assertEquals(new HashSet<>(Arrays.asList(4, 5)), grid.getCands(0, 8));
+        assertEquals(new HashSet<>(Arrays.asList(3, 5)), grid.getCands(1, 8));
+        assertEquals(new HashSet<>(Arrays.asList(3, 4)), grid.getCands(2, 8));
+    }
+
+    @Test
+    public void test_hidden_never_removes_solution(){
+        for(int dif = 3; dif <= 5; dif++){
+            assertSoundOn(difFiles[dif], solver -> {
+                for(int rc = 0; rc < 9; rc++){
+                    solver.hiddenCandidates(rc, (rc * 4) % 9, changed);
+                }
+            });
+        }
+    }
+
+    /**
+     * Runs a technique on each puzzle of a file once naked singles have been applied, and checks
+     * that it never removes a candidate of the solution
+     * @param fileName the file of puzzles, each with a solution
+     * @param technique runs the technique with the solver of a puzzle
+     * @return the number of puzzles whose candidates the technique changed
+     */
+    private int assertSoundOn(String fileName, Consumer<Solver> technique){
+        int numChanged = 0;
+        for(Grid puzzle: getGrids(fileName)){
+            Grid solution = puzzle.clone();
+            assertTrue(DancingLinks.solve(solution));
+            solver = new Solver(puzzle);
+            solver.runNakedSingle(changed);
+            Grid before = puzzle.clone();
+            technique.accept(solver);
+            if(!before.equals(puzzle)){
+                numChanged++;
+            }
+            for(int r = 0; r < 9; r++){
+                for(int c = 0; c < 9; c++){
+                    assertTrue(puzzle.getCands(r, c).contains(solution.getVal(r, c)));
+                }
+            }
+        }
+        return numChanged;
+    }
+
     private void keepCands(Cell cell, Integer... cands){
         Set<Integer> keep = new HashSet<>(Arrays.asList(cands));
         for(int i = 1; i <= 9; i++){
@@ -167,6 +298,56 @@ public class SolverTest {
         }
     }
 
+    @Test
+    public void test_swordfish(){
+        //1 is confined to columns 0, 4 and 8 in rows 0, 3 and 6
+        for(int r = 0; r < 9; r += 3){
+            for(int c = 0; c < 9; c++){
+                if(c % 4 != 0){
+                    grid.removeCand(r, c, 1);
+                }
+            }
+        }
+        assertFalse(solver.xWing(0, 1, changed));
+        assertTrue(solver.fish(3, 1, 3, false, changed));
+        for(int r = 0; r < 9; r++){
+            for(int c = 0; c < 9; c += 4){
+                assertEquals(r % 3 == 0, grid.getCands(r, c).contains(1));
+            }
+        }
+    }
+
+    @Test
+    public void test_finned_x_wing(){
+        //1 is in columns 0 and 5 of row 0, and in columns 0 and 5 of row 4 with a fin at (4, 3)
+        for(int c = 0; c < 9; c++){
+            if(c != 0 && c != 5){
+                grid.removeCand(0, c, 1);
+            }
+            if(c != 0 && c != 5 && c != 3){
+                grid.removeCand(4, c, 1);
+            }
+        }
+        assertFalse(solver.fish(0, 8, 2, false, changed));
+        assertTrue(solver.basicFish(0, 8, changed));
+        //only the cells of column 5 in the fin's box lose 1
+        assertFalse(grid.getCands(3, 5).contains(1));
+        assertFalse(grid.getCands(5, 5).contains(1));
+        assertTrue(grid.getCands(8, 5).contains(1));
+        assertTrue(grid.getCands(8, 0).contains(1));
+    }
+
+    @Test
+    public void test_fish_never_removes_solution(){
+        for(int dif = 3; dif <= 5; dif++){
+            assertSoundOn(difFiles[dif], solver -> {
+                for(int rc = 0; rc < 9; rc++){
+                    solver.basicFish(rc, rc, changed);
+                }
+            });
+        }
+    }
+
     @Test
     public void test_xy_wing(){
         List<Grid> dif5 = getGrids(difFiles[5]);
@@ -196,12 +377,421 @@ public class SolverTest {
         assertFalse(grid.getCands(3, 2).contains(9));
     }
 
+    @Test
+    public void test_xyz_wing(){
+        keepCands(grid.getCell(0, 0), 1, 2, 3);
+        keepCands(grid.getCell(0, 4), 1, 3);
+        keepCands(grid.getCell(1, 1), 2, 3);
+        assertFalse(solver.xYWing(0, 0, changed));
+        assertTrue(solver.xYZWing(0, 0, changed));
+        for(int r = 0; r < 9; r++){
+            for(int c = 0; c < 9; c++){
+                boolean removed = r == 0 && (c == 1 || c == 2);
+                assertEquals(!removed, grid.getCands(r, c).contains(3));
+            }
+        }
+    }
+
+    @Test
+    public void test_w_wing(){
+        keepCands(grid.getCell(0, 0), 1, 2);
+        keepCands(grid.getCell(4, 4), 1, 2);
+        //1 is only in columns 0 and 4 of row 8, seeing each bivalue cell
+        for(int c = 0; c < 9; c++){
+            if(c != 0 && c != 4){
+                grid.removeCand(8, c, 1);
+            }
+        }
+        assertTrue(solver.wWing(0, 0, changed));
+        for(int r = 0; r < 9; r++){
+            for(int c = 0; c < 9; c++){
+                boolean removed = r == 0 && c == 4 || r == 4 && c == 0;
+                assertEquals(!removed, grid.getCands(r, c).contains(2));
+            }
+        }
+    }
+
+    @Test
+    public void test_wings_never_remove_solution(){
+        for(int dif = 3; dif <= 5; dif++){
+            assertSoundOn(difFiles[dif], solver -> {
+                for(int rc = 0; rc < 9; rc++){
+                    solver.nakedCandidateN(rc, rc, 2, changed);
+                    solver.xYWing(rc, (rc * 4) % 9, changed);
+                    solver.xYZWing(rc, (rc * 4) % 9, changed);
+                    solver.wWing(rc, (rc * 4) % 9, changed);
+                }
+            });
+        }
+    }
+
+    /**
+     * Leaves 1 in only columns 0 and 4 of row 0 and columns 0 and 5 of row 3, an x chain
+     * that removes 1 from the cells seeing both (0, 4) and (3, 5)
+     */
+    private void makeSkyscraper(){
+        for(int c = 0; c < 9; c++){
+            if(c != 0 && c != 4){
+                grid.removeCand(0, c, 1);
+            }
+            if(c != 0 && c != 5){
+                grid.removeCand(3, c, 1);
+            }
+        }
+    }
+
+    private void assertSkyscraperRemoved(){
+        for(int r = 0; r < 9; r++){
+            for(int c = 0; c < 9; c++){
+                boolean removed = r == 0 && c != 0 && c != 4 || r == 3 && c != 0 && c != 5
+                        || (r == 1 || r == 2) && c == 5 || (r == 4 || r == 5) && c == 4;
+                assertEquals(!removed, grid.getCands(r, c).contains(1));
+            }
+        }
+    }
+
+    @Test
+    public void test_x_chain(){
+        makeSkyscraper();
+        assertFalse(solver.xChain(0, 4, 1, changed));
+        assertTrue(solver.xChain(0, 4, 3, changed));
+        assertSkyscraperRemoved();
+    }
+
+    @Test
+    public void test_alternating_inference_chain(){
+        makeSkyscraper();
+        assertFalse(solver.alternatingInferenceChain(0, 4, 1, changed));
+        assertTrue(solver.alternatingInferenceChain(0, 4, 3, changed));
+        assertSkyscraperRemoved();
+    }
+
+    @Test
+    public void test_remote_pair(){
+        int[][] chain = {{0, 0}, {0, 5}, {4, 5}, {4, 8}};
+        for(int[] cell: chain){
+            keepCands(grid.getCell(cell[0], cell[1]), 1, 2);
+        }
+        assertFalse(solver.remotePair(0, 0, 2, changed));
+        assertTrue(solver.remotePair(0, 0, 3, changed));
+        for(int r = 0; r < 9; r++){
+            for(int c = 0; c < 9; c++){
+                boolean removed = r == 0 && c == 8 || r == 4 && c == 0;
+                assertEquals(!removed, grid.getCands(r, c).contains(1));
+                assertEquals(!removed, grid.getCands(r, c).contains(2));
+            }
+        }
+    }
+
+    @Test
+    public void test_chains_never_remove_solution(){
+        for(int dif = 2; dif <= 5; dif++){
+            assertSoundOn(difFiles[dif], solver -> {
+                for(int r = 0; r < 9; r++){
+                    for(int c = 0; c < 9; c++){
+                        solver.xChain(r, c, 6, changed);
+                        solver.remotePair(r, c, 6, changed);
+                        solver.alternatingInferenceChain(r, c, 6, changed);
+                    }
+                }
+            });
+        }
+    }
+
+    @Test
+    public void test_forcing_chains(){
+        int numChanged = assertSoundOn(difFiles[5], solver -> {
+            for(int r = 0; r < 9; r++){
+                for(int c = 0; c < 9; c++){
+                    //no links followed means nothing can be implied
+                    assertFalse(solver.forcingChains(r, c, 0, changed));
+                }
+            }
+            for(int r = 0; r < 9; r++){
+                for(int c = 0; c < 9; c++){
+                    solver.forcingChains(r, c, 6, changed);
+                }
+            }
+        });
+        assertEquals(getGrids(difFiles[5]).size(), numChanged);
+    }
+
+    @Test
+    public void test_forcing_chains_contradiction(){
+        //three cells of row 0 share only the candidates 1 and 2, so every assumption fails
+        for(int c = 0; c < 3; c++){
+            grid.removeCands(c, Cell.ALL_CANDS & ~(Cell.bit(1) | Cell.bit(2)));
+        }
+        Grid copy = grid.clone();
+        assertFalse(solver.forcingChains(0, 0, 6, changed));
+        assertTrue(grid.hasContradiction());
+
+        Solver strictSolver = new Solver(copy);
+        strictSolver.setStrict(true);
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> strictSolver.forcingChains(0, 0, 6, changed));
+        assertTrue(thrown.getMessage().contains("forcing chain"));
+    }
+
+    @Test
+    public void test_forcing_trials(){
+        int numChanged = assertSoundOn(difFiles[5], solver -> {
+            for(int r = 0; r < 9; r++){
+                for(int c = 0; c < 9; c++){
+                    solver.forcingTrials(r, c, 32, changed);
+                }
+            }
+            assertFalse(solver.grid.hasContradiction());
+        });
+        assertTrue(numChanged > 0);
+    }
+
+    @Test
+    public void test_forcing_trials_contradiction(){
+        //three cells of row 0 share only the candidates 1 and 2, so every branch fails
+        for(int c = 0; c < 3; c++){
+            grid.removeCands(c, Cell.ALL_CANDS & ~(Cell.bit(1) | Cell.bit(2)));
+        }
+        Grid copy = grid.clone();
+        solver.forcingTrials(0, 0, 32, changed);
+        assertTrue(grid.hasContradiction());
+        //no cell is emptied to report it
+        assertEquals(Cell.bit(1) | Cell.bit(2), grid.getCandMask(0));
+
+        Solver strictSolver = new Solver(copy);
+        strictSolver.setStrict(true);
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> strictSolver.forcingTrials(0, 0, 32, changed));
+        assertTrue(thrown.getMessage().contains("forcing trial"));
+    }
+
+    @Test
+    public void test_forcing_trials_solve(){
+        List<Technique> techniques = Arrays.asList(Technique.HIDDEN_SINGLES, Technique.FORCING_TRIALS);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            int numSolvedBySingles = 0;
+            int numSolvedByTrials = 0;
+            for(Grid puzzle: getGrids(difFiles[5])){
+                solver = new Solver(puzzle.clone());
+                solver.setTechniques(Collections.singletonList(Technique.HIDDEN_SINGLES));
+                if(solver.solve()){
+                    numSolvedBySingles++;
+                }
+                Grid inTurn = puzzle.clone();
+                solver = new Solver(inTurn);
+                solver.setTechniques(techniques);
+                solver.setVerification(VerificationPolicy.FULL);
+                boolean solved = solver.solve();
+                if(solved){
+                    numSolvedByTrials++;
+                }
+                //trying the branches at the same time finds the same eliminations
+                Grid together = puzzle.clone();
+                solver = new Solver(together);
+                solver.setTechniques(techniques);
+                solver.setVerification(VerificationPolicy.FULL);
+                solver.setSpeculation(pool);
+                assertEquals(solved, solver.solve());
+                assertEquals(inTurn, together);
+            }
+            assertTrue(numSolvedByTrials > numSolvedBySingles);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void test_techniques(){
+        List<Grid> dif5 = getGrids(difFiles[5]);
+        int numSolvedBySingles = 0;
+        for(Grid puzzle: dif5){
+            solver = new Solver(puzzle.clone());
+            solver.setTechniques(Collections.singletonList(Technique.HIDDEN_SINGLES));
+            assertEquals(Collections.singletonList(Technique.HIDDEN_SINGLES), solver.getTechniques());
+            if(solver.solve()){
+                numSolvedBySingles++;
+            }
+            //the order of the techniques changes the path, not the result
+            Grid reversed = puzzle.clone();
+            solver = new Solver(reversed);
+            List<Technique> techniques = new ArrayList<>(Arrays.asList(Technique.values()));
+            Collections.reverse(techniques);
+            solver.setTechniques(techniques);
+            assertTrue(solver.solve());
+        }
+        assertTrue(numSolvedBySingles < dif5.size());
+    }
+
+    @Test
+    public void test_cell_techniques_reach_a_full_fixpoint(){
+        //an elimination anywhere can complete a pattern whose cells did not change, so when solve
+        //stops, a pass of the technique over every cell must find nothing more
+        List<Grid> dif5 = getGrids(difFiles[5]);
+        for(Technique technique: Technique.values()){
+            if(technique.isUnitTechnique()){
+                continue;
+            }
+            for(Grid puzzle: dif5){
+                Grid grid = puzzle.clone();
+                solver = new Solver(grid);
+                solver.setTechniques(Arrays.asList(Technique.HIDDEN_SINGLES, technique));
+                if(solver.solve()){
+                    continue;
+                }
+                for(int r = 0; r < 9; r++){
+                    for(int c = 0; c < 9; c++){
+                        assertFalse(technique + " at " + r + ", " + c, runOnCell(technique, r, c));
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean runOnCell(Technique technique, int row, int column){
+        switch(technique){
+            case XY_WING:
+                return solver.xYWing(row, column, changed);
+            case XYZ_WING:
+                return solver.xYZWing(row, column, changed);
+            case W_WING:
+                return solver.wWing(row, column, changed);
+            case REMOTE_PAIR:
+                return solver.remotePair(row, column, 6, changed);
+            case X_CHAIN:
+                return solver.xChain(row, column, 6, changed);
+            case ALTERNATING_INFERENCE_CHAIN:
+                return solver.alternatingInferenceChain(row, column, 6, changed);
+            case FORCING_CHAINS:
+                return solver.forcingChains(row, column, 6, changed);
+            case FORCING_TRIALS:
+                return solver.forcingTrials(row, column, 32, changed);
+            default:
+                throw new IllegalArgumentException(technique + " is not a cell technique");
+        }
+    }
+
+    @Test
+    public void test_reset(){
+        List<Grid> puzzles = getGrids(difFiles[4]);
+        Grid reused = new Grid();
+        solver = new Solver(reused);
+        for(Grid puzzle: puzzles){
+            Grid expected = puzzle.clone();
+            new Solver(expected).solve();
+            reused.load(toPuzzleString(puzzle));
+            solver.reset(reused);
+            solver.solve();
+            assertEquals(expected, reused);
+        }
+    }
+
+    @Test
+    public void test_speculation(){
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for(int dif = 3; dif <= 5; dif++){
+                for(Grid puzzle: getGrids(difFiles[dif])){
+                    Grid inTurn = puzzle.clone();
+                    boolean solved = new Solver(inTurn).solve();
+                    Grid speculated = puzzle.clone();
+                    solver = new Solver(speculated);
+                    solver.setVerification(VerificationPolicy.FULL);
+                    solver.setSpeculation(pool);
+                    assertEquals(solved, solver.solve());
+                    if(solved){
+                        assertEquals(inTurn, speculated);
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void test_speculation_contradiction(){
+        List<Technique> techniques = Arrays.asList(Technique.HIDDEN_SINGLES, Technique.FORCING_CHAINS,
+                Technique.FORCING_TRIALS);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            for(Grid puzzle: getGrids(difFiles[5])){
+                //removing the solution of an unsolved cell leaves the puzzle without a solution
+                Grid solution = puzzle.clone();
+                assertTrue(DancingLinks.solve(solution));
+                int coord = 0;
+                while(puzzle.isSolved(coord)){
+                    coord++;
+                }
+                puzzle.removeCand(coord / 9, coord % 9, solution.getVal(coord / 9, coord % 9));
+                Grid strictPuzzle = puzzle.clone();
+                solver = new Solver(puzzle);
+                solver.setTechniques(techniques);
+                solver.setSpeculation(pool);
+                assertFalse(solver.solve());
+                assertTrue(puzzle.hasContradiction());
+
+                Solver strictSolver = new Solver(strictPuzzle);
+                strictSolver.setTechniques(techniques);
+                strictSolver.setSpeculation(pool);
+                strictSolver.setStrict(true);
+                assertThrows(IllegalStateException.class, strictSolver::solve);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void test_reuse_allocates_nothing(){
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        Assume.assumeTrue(allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled());
+        long thread = Thread.currentThread().getId();
+        List<String> puzzles = new ArrayList<>();
+        for(int dif = 1; dif <= 5; dif++){
+            for(Grid puzzle: getGrids(difFiles[dif])){
+                puzzles.add(toPuzzleString(puzzle));
+            }
+        }
+        Grid reused = new Grid();
+        solver = new Solver(reused);
+        solver.setVerification(VerificationPolicy.OFF);
+        //the first rounds load classes and warm up the techniques, later rounds may still
+        //be disturbed by the compiler, so one round of every puzzle allocating nothing is enough
+        long fewestBytes = Long.MAX_VALUE;
+        for(int round = 0; round < 6; round++){
+            long before = allocations.getThreadAllocatedBytes(thread);
+            long overhead = allocations.getThreadAllocatedBytes(thread) - before;
+            for(int i = 0; i < puzzles.size(); i++){
+                reused.load(puzzles.get(i));
+                solver.reset(reused);
+                solver.solve();
+            }
+            long bytes = allocations.getThreadAllocatedBytes(thread) - before - 2 * overhead;
+            if(round >= 2){
+                fewestBytes = Math.min(fewestBytes, bytes);
+            }
+        }
+        assertEquals(0, fewestBytes);
+    }
+
+    private static String toPuzzleString(Grid grid){
+        StringBuilder puzzle = new StringBuilder();
+        for(int coord = 0; coord < 81; coord++){
+            puzzle.append(grid.getVal(coord / 9, coord % 9));
+        }
+        return puzzle.toString();
+    }
+
     @Test
     public void test_dif_1(){
         sudokScanner = initializeScanner(difFiles[1]);
         while(sudokScanner.hasNext()){
             grid = new Grid(sudokScanner.nextLine());
             Solver solver = new Solver(grid);
+            solver.setVerification(VerificationPolicy.FULL);
             assertTrue(solver.solve());
         }
     }
@@ -212,6 +802,7 @@ public class SolverTest {
         while (sudokScanner.hasNext()) {
             grid = new Grid(sudokScanner.nextLine());
             Solver solver = new Solver(grid);
+            solver.setVerification(VerificationPolicy.FULL);
             assertTrue(solver.solve());
         }
     }
@@ -222,6 +813,7 @@ public class SolverTest {
         while (sudokScanner.hasNext()) {
             grid = new Grid(sudokScanner.nextLine());
             Solver solver = new Solver(grid);
+            solver.setVerification(VerificationPolicy.FULL);
             assertTrue(solver.solve());
         }
     }
@@ -232,6 +824,7 @@ public class SolverTest {
         while (sudokScanner.hasNext()) {
             grid = new Grid(sudokScanner.nextLine());
             Solver solver = new Solver(grid);
+            solver.setVerification(VerificationPolicy.FULL);
             assertTrue(solver.solve());
         }
     }
@@ -245,6 +838,7 @@ public class SolverTest {
             grid = new Grid(sudokScanner.nextLine());
             Grid unsolved = grid.clone();
             Solver solver = new Solver(grid);
+            solver.setVerification(VerificationPolicy.FULL);
             if(solver.solve()){
                 System.out.println(i);
                 numSolved++;
@@ -265,6 +859,7 @@ public class SolverTest {
                 continue;
             }
             Solver solver = new Solver(grid);
+            solver.setVerification(VerificationPolicy.FULL);
             boolean solved = solver.solve();
             if(solved){
                 //System.out.println("Solved " + i);
@@ -0,0 +1,148 @@
+package Test.Java;
+import Main.Grid;
+import Main.Solver;
+import Main.Technique;
+import Main.TechniqueStats;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TechniqueStatsTest {
+
+    @Test
+    public void test_order_by_yield(){
+        TechniqueStats stats = new TechniqueStats(2);
+        List<Technique> techniques = Arrays.asList(Technique.HIDDEN_SINGLES, Technique.INTERSECTIONS,
+                Technique.FISH, Technique.FORCING_CHAINS);
+        //not enough samples keeps the given order
+        stats.record(Technique.FORCING_CHAINS, 10, 100);
+        assertEquals(techniques, stats.order(techniques));
+
+        stats.record(Technique.FORCING_CHAINS, 10, 100);
+        stats.record(Technique.HIDDEN_SINGLES, 100, 10);
+        stats.record(Technique.HIDDEN_SINGLES, 100, 10);
+        stats.record(Technique.INTERSECTIONS, 100, 0);
+        stats.record(Technique.INTERSECTIONS, 100, 0);
+        //forcing chains has the higher yield, intersections never removed anything and FISH is unmeasured
+        assertEquals(Arrays.asList(Technique.FORCING_CHAINS, Technique.FISH, Technique.HIDDEN_SINGLES,
+                Technique.INTERSECTIONS), stats.order(techniques));
+        assertEquals(2, stats.getRuns(Technique.HIDDEN_SINGLES));
+        assertEquals(200, stats.getEliminations(Technique.FORCING_CHAINS));
+        assertEquals(0.1, stats.getYield(Technique.HIDDEN_SINGLES), 1e-9);
+    }
+
+    @Test
+    public void test_order_while_recording(){
+        //FISH crosses minSamples after order first reads its runs, as if another thread recorded it
+        TechniqueStats stats = new TechniqueStats(1){
+            private boolean recorded;
+
+            @Override
+            public long getRuns(Technique technique){
+                long runs = super.getRuns(technique);
+                if(technique == Technique.FISH && !recorded){
+                    recorded = true;
+                    record(Technique.FISH, 1, 5);
+                }
+                return runs;
+            }
+        };
+        stats.record(Technique.HIDDEN_SINGLES, 10, 1);
+        List<Technique> techniques = Arrays.asList(Technique.HIDDEN_SINGLES, Technique.FISH);
+        assertEquals(techniques, stats.order(techniques));
+        //measured from the next order on
+        assertEquals(Arrays.asList(Technique.FISH, Technique.HIDDEN_SINGLES), stats.order(techniques));
+    }
+
+    @Test
+    public void test_order_shared_across_threads() throws InterruptedException {
+        TechniqueStats stats = new TechniqueStats(1000);
+        List<Technique> techniques = Arrays.asList(Technique.values());
+        //techniques cross minSamples while the other threads order them
+        Thread[] threads = new Thread[4];
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        for(int t = 0; t < threads.length; t++){
+            threads[t] = new Thread(() -> {
+                try {
+                    for(int i = 0; i < 20000; i++){
+                        stats.record(techniques.get(i % techniques.size()), 1 + i % 7, i % 3);
+                        assertEquals(techniques.size(), stats.order(techniques).size());
+                    }
+                } catch (Throwable e){
+                    failures.add(e);
+                }
+            });
+            threads[t].start();
+        }
+        for(Thread thread: threads){
+            thread.join();
+        }
+        assertEquals(Collections.emptyList(), failures);
+        assertEquals(new HashSet<>(techniques), new HashSet<>(stats.order(techniques)));
+    }
+
+    @Test
+    public void test_freeze(){
+        TechniqueStats stats = new TechniqueStats(1);
+        stats.record(Technique.FISH, 1, 1000);
+        stats.record(Technique.HIDDEN_SINGLES, 1, 10);
+        List<Technique> frozen = stats.freeze();
+        assertTrue(stats.isFrozen());
+        //the two measured techniques swap places
+        assertEquals(Technique.FISH, frozen.get(0));
+        assertEquals(Technique.HIDDEN_SINGLES, frozen.get(Technique.FISH.ordinal()));
+        assertEquals(Technique.values().length, frozen.size());
+        stats.record(Technique.HIDDEN_SINGLES, 1, 100000);
+        assertEquals(1, stats.getRuns(Technique.HIDDEN_SINGLES));
+        assertEquals(Arrays.asList(Technique.FISH, Technique.HIDDEN_SINGLES),
+                stats.order(Arrays.asList(Technique.HIDDEN_SINGLES, Technique.FISH)));
+    }
+
+    @Test
+    public void test_save_and_load() throws Exception {
+        TechniqueStats stats = new TechniqueStats(1);
+        stats.record(Technique.X_CHAIN, 1, 50);
+        Path file = Files.createTempFile("techniques", ".txt");
+        try {
+            stats.save(file);
+            assertEquals(stats.freeze(), TechniqueStats.load(file));
+            String old = System.getProperty(Technique.ORDER_FILE_PROPERTY);
+            System.setProperty(Technique.ORDER_FILE_PROPERTY, file.toString());
+            try {
+                assertEquals(stats.freeze(), Technique.configuredOrder());
+                //the file is read once, not again by every new solver
+                Files.writeString(file, "FISH");
+                assertEquals(stats.freeze(), Technique.configuredOrder());
+                assertEquals(stats.freeze(), new Solver(new Grid()).getTechniques());
+            } finally {
+                if(old == null){
+                    System.clearProperty(Technique.ORDER_FILE_PROPERTY);
+                } else {
+                    System.setProperty(Technique.ORDER_FILE_PROPERTY, old);
+                }
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void test_solver_records_stats() throws Exception {
+        TechniqueStats stats = new TechniqueStats();
+        Scanner scanner = new Scanner(new File("src/Test/text/diff5.txt"));
+        while(scanner.hasNext()){
+            Grid grid = new Grid(scanner.nextLine());
+            Solver solver = new Solver(grid);
+            solver.setStats(stats);
+            assertTrue(solver.solve());
+        }
+        assertTrue(stats.getRuns(Technique.HIDDEN_SINGLES) > 0);
+        assertTrue(stats.getEliminations(Technique.HIDDEN_SINGLES) > 0);
+        assertEquals(Technique.values().length, stats.order(Arrays.asList(Technique.values())).size());
+    }
+}
@@ -0,0 +1,44 @@
+package Test.Java;
+import Main.Technique;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TechniqueTest {
+
+    @Test
+    public void test_default_order(){
+        assertEquals(Arrays.asList(Technique.values()), Technique.parseOrder(null));
+        assertEquals(Arrays.asList(Technique.values()), Technique.parseOrder(" "));
+        assertTrue(Technique.HIDDEN_SINGLES.isUnitTechnique());
+        assertFalse(Technique.FORCING_CHAINS.isUnitTechnique());
+    }
+
+    @Test
+    public void test_parse_order(){
+        assertEquals(Arrays.asList(Technique.FISH, Technique.HIDDEN_SINGLES),
+                Technique.parseOrder("fish, HIDDEN_SINGLES,,fish"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_parse_unknown_technique(){
+        Technique.parseOrder("HIDDEN_SINGLES,GUESSING");
+    }
+
+    @Test
+    public void test_configured_order(){
+        String old = System.getProperty(Technique.ORDER_PROPERTY);
+        try {
+            System.setProperty(Technique.ORDER_PROPERTY, "X_CHAIN,INTERSECTIONS");
+            assertEquals(Arrays.asList(Technique.X_CHAIN, Technique.INTERSECTIONS), Technique.configuredOrder());
+        } finally {
+            if(old == null){
+                System.clearProperty(Technique.ORDER_PROPERTY);
+            } else {
+                System.setProperty(Technique.ORDER_PROPERTY, old);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package Test.Java;
+import Main.Grid;
+import Main.Units;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class UnitsTest {
+
+    @Test
+    public void test_units_cover_grid(){
+        for(int type = 0; type < 3; type++){
+            Set<Integer> coords = new HashSet<>();
+            for(int unit = type * 9; unit < type * 9 + 9; unit++){
+                for(int coord: Units.UNITS[unit]){
+                    coords.add(coord);
+                }
+            }
+            assertEquals(81, coords.size());
+        }
+        for(int coord = 0; coord < 81; coord++){
+            for(int i = 0; i < 3; i++){
+                int unit = Units.CELL_UNITS[coord][i];
+                assertEquals(coord, Units.UNITS[unit][Units.UNIT_POSITIONS[coord][i]]);
+            }
+        }
+    }
+
+    @Test
+    public void test_peers_match_seen_cells(){
+        Grid grid = new Grid();
+        for(int coord = 0; coord < 81; coord++){
+            Set<Integer> peers = new HashSet<>();
+            for(int peer: Units.PEERS[coord]){
+                peers.add(peer);
+                assertTrue(Units.isPeer(coord, peer));
+                assertTrue(Units.isPeer(peer, coord));
+            }
+            assertEquals(20, peers.size());
+            assertFalse(peers.contains(coord));
+            assertFalse(Units.isPeer(coord, coord));
+
+            Set<Integer> seen = new HashSet<>();
+            grid.getSeenCells(coord / 9, coord % 9).forEach(cell -> seen.add(cell.getCoord()));
+            assertEquals(21, seen.size());
+            seen.remove(coord);
+            assertEquals(peers, seen);
+        }
+    }
+
+    @Test
+    public void test_common_peers(){
+        for(int coordOne = 0; coordOne < 81; coordOne++){
+            for(int coordTwo = 0; coordTwo < 81; coordTwo++){
+                long[] common = Units.COMMON_PEERS[coordOne * 81 + coordTwo];
+                for(int coord = 0; coord < 81; coord++){
+                    boolean isCommon = Units.isPeer(coord, coordOne) && Units.isPeer(coord, coordTwo);
+                    assertEquals(isCommon, (common[coord / 64] & (1L << coord)) != 0);
+                }
+            }
+        }
+    }
+}
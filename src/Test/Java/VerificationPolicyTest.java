@@ -0,0 +1,157 @@
+package Test.Java;
+import Main.Grid;
+import Main.DancingLinks;
+import Main.Solver;
+import Main.Technique;
+import Main.TechniqueStats;
+import Main.VerificationPolicy;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.*;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+public class VerificationPolicyTest {
+
+    @Test
+    public void test_parse(){
+        assertSame(VerificationPolicy.OFF, VerificationPolicy.parse(null));
+        assertSame(VerificationPolicy.OFF, VerificationPolicy.parse("off"));
+        assertSame(VerificationPolicy.FULL, VerificationPolicy.parse(" FULL "));
+        assertEquals(VerificationPolicy.Mode.SAMPLED, VerificationPolicy.parse("sampled:100").getMode());
+        assertEquals(VerificationPolicy.Mode.ASYNC, VerificationPolicy.parse("async").getMode());
+    }
+
+    @Test
+    public void test_parse_invalid(){
+        for(String policy: new String[]{"sometimes", "sampled:", "sampled:x", "sampled:0"}){
+            assertThrows(IllegalArgumentException.class, () -> VerificationPolicy.parse(policy));
+        }
+    }
+
+    @Test
+    public void test_configured(){
+        String old = System.getProperty(VerificationPolicy.PROPERTY);
+        try {
+            System.setProperty(VerificationPolicy.PROPERTY, "sampled:5");
+            VerificationPolicy sampled = VerificationPolicy.configured();
+            assertEquals(VerificationPolicy.Mode.SAMPLED, sampled.getMode());
+            //parsed once, so the count of solves is kept
+            assertSame(sampled, VerificationPolicy.configured());
+            System.setProperty(VerificationPolicy.PROPERTY, "full");
+            assertSame(VerificationPolicy.FULL, VerificationPolicy.configured());
+            System.clearProperty(VerificationPolicy.PROPERTY);
+            assertSame(VerificationPolicy.OFF, VerificationPolicy.configured());
+        } finally {
+            if(old == null){
+                System.clearProperty(VerificationPolicy.PROPERTY);
+            } else {
+                System.setProperty(VerificationPolicy.PROPERTY, old);
+            }
+        }
+    }
+
+    @Test
+    public void test_full_and_sampled_solve() throws FileNotFoundException {
+        //FULL is shared with the other tests, so only the mismatches of this test are counted
+        long fullMismatches = VerificationPolicy.FULL.getMismatches();
+        VerificationPolicy sampled = VerificationPolicy.sampled(3);
+        for(Grid puzzle: getGrids("diff4.txt")){
+            for(VerificationPolicy policy: Arrays.asList(VerificationPolicy.FULL, sampled)){
+                Solver solver = new Solver(puzzle.clone());
+                solver.setVerification(policy);
+                assertTrue(solver.solve());
+            }
+        }
+        assertEquals(fullMismatches, VerificationPolicy.FULL.getMismatches());
+        assertEquals(0, sampled.getMismatches());
+    }
+
+    @Test
+    public void test_async_checks_every_solve() throws FileNotFoundException {
+        List<String> reasons = new ArrayList<>();
+        int[] numChecks = new int[1];
+        Executor counting = task -> {
+            numChecks[0]++;
+            task.run();
+        };
+        VerificationPolicy async = VerificationPolicy.async(counting, (puzzle, result, reason) -> reasons.add(reason));
+        List<Grid> puzzles = getGrids("diff3.txt");
+        for(Grid puzzle: puzzles){
+            Solver solver = new Solver(puzzle);
+            solver.setVerification(async);
+            assertTrue(solver.solve());
+        }
+        assertEquals(puzzles.size(), numChecks[0]);
+        assertEquals(Collections.emptyList(), reasons);
+        assertEquals(0, async.getMismatches());
+    }
+
+    @Test
+    public void test_full_detects_bad_elimination() throws FileNotFoundException {
+        long fullMismatches = VerificationPolicy.FULL.getMismatches();
+        Solver solver = sabotagedSolver(getGrids("diff5.txt").get(0));
+        solver.setVerification(VerificationPolicy.FULL);
+        assertThrows(AssertionError.class, solver::solve);
+        assertEquals(fullMismatches + 1, VerificationPolicy.FULL.getMismatches());
+    }
+
+    @Test
+    public void test_sampled_detects_bad_elimination() throws FileNotFoundException {
+        VerificationPolicy sampled = VerificationPolicy.sampled(1);
+        Solver solver = sabotagedSolver(getGrids("diff5.txt").get(0));
+        solver.setVerification(sampled);
+        assertThrows(AssertionError.class, solver::solve);
+        assertEquals(1, sampled.getMismatches());
+    }
+
+    @Test
+    public void test_async_detects_bad_elimination() throws FileNotFoundException {
+        List<String> reasons = new ArrayList<>();
+        VerificationPolicy async = VerificationPolicy.async(Runnable::run, (puzzle, result, reason) -> reasons.add(reason));
+        Solver solver = sabotagedSolver(getGrids("diff5.txt").get(0));
+        solver.setVerification(async);
+        //the solve is not interrupted, its result is reported to the listener
+        solver.solve();
+        assertEquals(1, reasons.size());
+        assertEquals(1, async.getMismatches());
+    }
+
+    /**
+     * Returns a solver that removes the solution of an unsolved cell from its grid after the first
+     * technique it runs, as a wrong elimination would
+     * @param puzzle the puzzle to be solved, with a solution
+     * @return a solver for puzzle
+     */
+    private Solver sabotagedSolver(Grid puzzle){
+        Grid solution = puzzle.clone();
+        assertTrue(DancingLinks.solve(solution));
+        Solver solver = new Solver(puzzle);
+        solver.setStats(new TechniqueStats(){
+            private boolean sabotaged;
+
+            @Override
+            public void record(Technique technique, long nanos, int eliminations){
+                super.record(technique, nanos, eliminations);
+                for(int coord = 0; coord < 81 && !sabotaged; coord++){
+                    if(!puzzle.isSolved(coord)){
+                        sabotaged = puzzle.removeCand(coord / 9, coord % 9, solution.getVal(coord / 9, coord % 9));
+                    }
+                }
+            }
+        });
+        return solver;
+    }
+
+    private List<Grid> getGrids(String fileName) throws FileNotFoundException {
+        List<Grid> grids = new ArrayList<>();
+        Scanner scanner = new Scanner(new File("src/Test/text/" + fileName));
+        while(scanner.hasNextLine()){
+            grids.add(new Grid(scanner.nextLine()));
+        }
+        return grids;
+    }
+}